@@ -0,0 +1,89 @@
+package com.mock.grpc;
+
+import com.google.protobuf.Struct;
+import com.mock.config.MockControllerClientBase;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import io.grpc.BindableService;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Пример gRPC сервиса заглушки: mock.v1.StubService/Call, тела запроса и ответа - google.protobuf.Struct.
+ *
+ * Параметры синхронизируются с MockController так же, как у HTTP сервисов.
+ * Код по proto не генерируется: MethodDescriptor собирается вручную с маршаллером Struct,
+ * поэтому метод с любым именем сервиса и метода добавляется без protoc.
+ * Ответ формируется через GrpcStubResponder.respond.
+ */
+@Service
+public class GrpcMockService extends MockControllerClientBase implements BindableService {
+    
+    public static final String SERVICE_NAME = "mock.v1.StubService";
+    
+    private static final MethodDescriptor<Struct, Struct> CALL_METHOD = MethodDescriptor.<Struct, Struct>newBuilder()
+        .setType(MethodDescriptor.MethodType.UNARY)
+        .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, "Call"))
+        .setRequestMarshaller(ProtoUtils.marshaller(Struct.getDefaultInstance()))
+        .setResponseMarshaller(ProtoUtils.marshaller(Struct.getDefaultInstance()))
+        .build();
+    
+    @Autowired
+    private GrpcStubResponder grpcStubResponder;
+    
+    // Параметры для метода Call
+    private long delayGrpcCall = 50; // задержка в миллисекундах
+    private String stringGrpcCallRs = "OK";
+    private int intGrpcCallStatusCode = 0; // код gRPC (0 - OK) или HTTP статус
+    
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(SERVICE_NAME)
+            .addMethod(CALL_METHOD, ServerCalls.asyncUnaryCall(this::call))
+            .build();
+    }
+    
+    private void call(Struct request, StreamObserver<Struct> observer) {
+        StubRequest stubRequest = GrpcStubResponder.toStubRequest("grpcCall", StructMaps.toMap(request));
+        grpcStubResponder.respond(stubRequest, getCallResponse(stubRequest), observer,
+            response -> StructMaps.toStruct(response.getBody()));
+    }
+    
+    public StubResponse getCallResponse(StubRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("result", stringGrpcCallRs);
+        return new StubResponse(intGrpcCallStatusCode, delayGrpcCall, response);
+    }
+    
+    public long getDelayGrpcCall() {
+        return delayGrpcCall;
+    }
+    
+    public void setDelayGrpcCall(long delayGrpcCall) {
+        this.delayGrpcCall = delayGrpcCall;
+    }
+    
+    public String getStringGrpcCallRs() {
+        return stringGrpcCallRs;
+    }
+    
+    public void setStringGrpcCallRs(String stringGrpcCallRs) {
+        this.stringGrpcCallRs = stringGrpcCallRs;
+    }
+    
+    public int getIntGrpcCallStatusCode() {
+        return intGrpcCallStatusCode;
+    }
+    
+    public void setIntGrpcCallStatusCode(int intGrpcCallStatusCode) {
+        this.intGrpcCallStatusCode = intGrpcCallStatusCode;
+    }
+}
@@ -0,0 +1,197 @@
+package com.mock.grpc;
+
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponder;
+import com.mock.config.StubResponse;
+import com.mock.config.admission.AdmissionController;
+import com.mock.config.admission.EndpointBulkheads;
+import com.mock.config.callback.CallbackDispatcher;
+import com.mock.config.jfr.ResponseDelayEvent;
+import com.mock.config.stats.EndpointStatsRegistry;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Формирует ответ gRPC метода заглушки.
+ *
+ * Ответ определяется так же, как для HTTP эндпоинтов, через StubResponder (сценарии и правила),
+ * с учетом AdmissionController и статистики эндпоинтов. Задержка выполняется планировщиком,
+ * поток вызова не блокируется.
+ *
+ * Статус ответа: значения 0-16 - коды gRPC (0 - OK), HTTP статусы переводятся в коды gRPC
+ * по стандартному соответствию (2xx - OK, 503 - UNAVAILABLE и т.д.).
+ */
+@Component
+public class GrpcStubResponder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GrpcStubResponder.class);
+    
+    @Autowired
+    private StubResponder stubResponder;
+    
+    @Autowired
+    private AdmissionController admissionController;
+    
+    @Autowired
+    private EndpointStatsRegistry endpointStatsRegistry;
+    
+    @Autowired
+    private CallbackDispatcher callbackDispatcher;
+    
+    @Autowired
+    private EndpointBulkheads endpointBulkheads;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "grpc-stub-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Создает запрос заглушки для текущего вызова; заголовки читаются из метаданных вызова.
+     */
+    public static StubRequest toStubRequest(String endpoint, Map<String, Object> body) {
+        Metadata metadata = StubMetadataInterceptor.METADATA.get();
+        return new StubRequest(endpoint, null, null, name -> header(metadata, name), body, true);
+    }
+    
+    private static String header(Metadata metadata, String name) {
+        String key = name.toLowerCase();
+        if (metadata == null || key.endsWith(Metadata.BINARY_HEADER_SUFFIX)) {
+            return null;
+        }
+        return metadata.get(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER));
+    }
+    
+    /**
+     * Отвечает на унарный вызов после ожидания в очереди эндпоинта (EndpointBulkheads) и задержки:
+     * успешный статус отдает сообщение toMessage(response), остальные статусы завершают вызов ошибкой.
+     */
+    public <T> void respond(StubRequest request, StubResponse defaults, StreamObserver<T> observer,
+                            Function<StubResponse, T> toMessage) {
+        String endpoint = request.getEndpoint();
+        long startNanos = endpointStatsRegistry.requestStarted(endpoint);
+        StubResponse resolved;
+        try {
+            resolved = stubResponder.resolve(request, defaults);
+        } catch (RuntimeException e) {
+            endpointStatsRegistry.requestFinished(endpoint, startNanos, null);
+            observer.onError(Status.INTERNAL.withDescription(e.getMessage()).withCause(e).asRuntimeException());
+            return;
+        }
+        long admittedCost = admissionController.tryAcquire(resolved);
+        if (admittedCost < 0) {
+            reject(request, observer, toMessage, startNanos);
+            return;
+        }
+        
+        Runnable complete = () -> {
+            try {
+                deliver(observer, resolved, toMessage);
+            } finally {
+                endpointBulkheads.release(endpoint);
+                admissionController.release(admittedCost);
+                endpointStatsRegistry.requestFinished(endpoint, startNanos, resolved);
+            }
+        };
+        Runnable start = () -> {
+            callbackDispatcher.onResponse(request, resolved);
+            long delayNanos = resolved.getDelayNanos();
+            if (delayNanos > 0) {
+                long delayStartNanos = System.nanoTime();
+                scheduler.schedule(() -> {
+                    recordDelay(endpoint, resolved.getStatus(), delayNanos, delayStartNanos);
+                    complete.run();
+                }, delayNanos, TimeUnit.NANOSECONDS);
+            } else {
+                complete.run();
+            }
+        };
+        // Место из очереди эндпоинта передается в потоке, освободившем его, поэтому запуск переносится в планировщик
+        EndpointBulkheads.Admission admission = endpointBulkheads.acquire(endpoint, () -> scheduler.execute(start));
+        if (admission == EndpointBulkheads.Admission.ACQUIRED) {
+            start.run();
+        } else if (admission == EndpointBulkheads.Admission.REJECTED) {
+            admissionController.release(admittedCost);
+            reject(request, observer, toMessage, startNanos);
+        }
+    }
+    
+    private <T> void reject(StubRequest request, StreamObserver<T> observer, Function<StubResponse, T> toMessage,
+                            long startNanos) {
+        StubResponse rejected = admissionController.rejectResponse();
+        try {
+            deliver(observer, rejected, toMessage);
+        } finally {
+            endpointStatsRegistry.requestFinished(request.getEndpoint(), startNanos, rejected);
+        }
+    }
+    
+    private <T> void deliver(StreamObserver<T> observer, StubResponse response, Function<StubResponse, T> toMessage) {
+        try {
+            Status status = toGrpcStatus(response.getStatus());
+            if (status.isOk()) {
+                observer.onNext(toMessage.apply(response));
+                observer.onCompleted();
+            } else {
+                observer.onError(status.withDescription(String.valueOf(response.getBody())).asRuntimeException());
+            }
+        } catch (RuntimeException e) {
+            // Клиент мог отменить вызов за время задержки
+            logger.debug("Cannot complete gRPC call: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Переводит статус ответа заглушки в статус gRPC.
+     */
+    static Status toGrpcStatus(int status) {
+        if (status >= 0 && status <= 16) {
+            return Status.fromCodeValue(status);
+        }
+        if (status >= 200 && status < 300) {
+            return Status.OK;
+        }
+        return switch (status) {
+            case 400 -> Status.INTERNAL;
+            case 401 -> Status.UNAUTHENTICATED;
+            case 403 -> Status.PERMISSION_DENIED;
+            case 404 -> Status.UNIMPLEMENTED;
+            case 429, 502, 503, 504 -> Status.UNAVAILABLE;
+            default -> Status.UNKNOWN;
+        };
+    }
+    
+    /**
+     * Записывает событие JFR о задержке; время ожидания считается от начала задержки.
+     */
+    private void recordDelay(String endpoint, int status, long delayNanos, long delayStartNanos) {
+        ResponseDelayEvent event = new ResponseDelayEvent();
+        if (event.isEnabled()) {
+            long actual = System.nanoTime() - delayStartNanos;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.configuredDelay = delayNanos;
+            event.actualDelay = actual;
+            event.skew = actual - delayNanos;
+            event.commit();
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+}
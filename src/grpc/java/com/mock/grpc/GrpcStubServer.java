@@ -0,0 +1,74 @@
+package com.mock.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC сервер заглушки (профиль сборки grpc).
+ *
+ * Публикует все бины BindableService на порту mock-controller.grpc.port. Обработчики заглушки
+ * не блокируются (задержка выполняется планировщиком GrpcStubResponder), поэтому по умолчанию
+ * вызовы обрабатываются прямо в потоках Netty без переключения на пул потоков.
+ */
+@Component
+public class GrpcStubServer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GrpcStubServer.class);
+    
+    @Value("${mock-controller.grpc.port:9090}")
+    private int port;
+    
+    @Value("${mock-controller.grpc.direct-executor:true}")
+    private boolean directExecutor;
+    
+    @Autowired(required = false)
+    private List<BindableService> services;
+    
+    private volatile Server server;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (services == null || services.isEmpty()) {
+            logger.warn("No gRPC services found, gRPC server is not started");
+            return;
+        }
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port)
+            .intercept(new StubMetadataInterceptor());
+        if (directExecutor) {
+            builder.directExecutor();
+        }
+        for (BindableService service : services) {
+            builder.addService(service);
+        }
+        try {
+            server = builder.build().start();
+            logger.info("gRPC stub server started on port {} with {} services", server.getPort(), services.size());
+        } catch (IOException e) {
+            logger.warn("Cannot start gRPC stub server on port {}: {}", port, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        Server current = server;
+        if (current != null) {
+            current.shutdown();
+            if (!current.awaitTermination(5, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mock.grpc;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Преобразование google.protobuf.Struct в Map и обратно для тел запросов и ответов заглушки.
+ */
+public final class StructMaps {
+    
+    private StructMaps() {
+    }
+    
+    public static Map<String, Object> toMap(Struct struct) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Value> entry : struct.getFieldsMap().entrySet()) {
+            result.put(entry.getKey(), toObject(entry.getValue()));
+        }
+        return result;
+    }
+    
+    public static Struct toStruct(Map<String, Object> map) {
+        Struct.Builder builder = Struct.newBuilder();
+        if (map != null) {
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                builder.putFields(entry.getKey(), toValue(entry.getValue()));
+            }
+        }
+        return builder.build();
+    }
+    
+    private static Object toObject(Value value) {
+        return switch (value.getKindCase()) {
+            case STRING_VALUE -> value.getStringValue();
+            case NUMBER_VALUE -> value.getNumberValue();
+            case BOOL_VALUE -> value.getBoolValue();
+            case STRUCT_VALUE -> toMap(value.getStructValue());
+            case LIST_VALUE -> {
+                List<Object> list = new ArrayList<>();
+                for (Value element : value.getListValue().getValuesList()) {
+                    list.add(toObject(element));
+                }
+                yield list;
+            }
+            default -> null;
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Value toValue(Object object) {
+        if (object == null) {
+            return Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+        }
+        if (object instanceof Number number) {
+            return Value.newBuilder().setNumberValue(number.doubleValue()).build();
+        }
+        if (object instanceof Boolean bool) {
+            return Value.newBuilder().setBoolValue(bool).build();
+        }
+        if (object instanceof Map<?, ?> map) {
+            return Value.newBuilder().setStructValue(toStruct((Map<String, Object>) map)).build();
+        }
+        if (object instanceof Collection<?> collection) {
+            ListValue.Builder list = ListValue.newBuilder();
+            for (Object element : collection) {
+                list.addValues(toValue(element));
+            }
+            return Value.newBuilder().setListValue(list).build();
+        }
+        return Value.newBuilder().setStringValue(String.valueOf(object)).build();
+    }
+}
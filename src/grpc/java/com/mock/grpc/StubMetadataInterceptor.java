@@ -0,0 +1,22 @@
+package com.mock.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * Сохраняет метаданные вызова в Context, чтобы правила могли проверять header.* и для gRPC запросов.
+ */
+class StubMetadataInterceptor implements ServerInterceptor {
+    
+    static final Context.Key<Metadata> METADATA = Context.key("mock-stub-metadata");
+    
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        return Contexts.interceptCall(Context.current().withValue(METADATA, headers), call, headers, next);
+    }
+}
@@ -1,7 +1,13 @@
 package com.mock.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.config.jfr.CheckUpdateEvent;
+import com.mock.config.jfr.ConfigApplyEvent;
+import com.mock.config.jfr.LoggingLevelChangeEvent;
+import com.mock.config.shared.SharedConfigSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
@@ -9,26 +15,39 @@ import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Централизованный компонент для сбора конфигурации от всех сервисов,
  * наследующихся от MockControllerClientBase, и синхронизации с MockController.
  */
 @Component
+@RegisterReflectionForBinding({ConfigAggregator.CheckUpdateResponse.class, ConfigAggregator.ConfigResponse.class})
 public class ConfigAggregator {
     
     private static final Logger logger = LoggerFactory.getLogger(ConfigAggregator.class);
@@ -48,13 +67,46 @@ public class ConfigAggregator {
     @Autowired
     private HealthcheckSender healthcheckSender;
     
+    @Autowired
+    private ObjectProvider<ConfigApplyListener> configApplyListeners;
+    
+    @Autowired
+    private DelayTimer delayTimer;
+    
+    @Autowired
+    private SharedConfigSnapshot sharedConfigSnapshot;
+    
+    @Autowired
+    private WireFormat wireFormat;
+    
     private volatile RestTemplate restTemplate;
     private volatile String version = "v1";
+    private volatile String lastAppliedVersion = null;
     private volatile long lastCheckUpdateTime = 0;
     private volatile int checkUpdateCount = 0;
     private volatile int errorCount = 0;
     private volatile String lastError = null;
     
+    /**
+     * Последний примененный конфиг и его ETag: база для условной и дельта-загрузки конфига.
+     */
+    private volatile Map<String, Object> lastAppliedConfig = null;
+    private volatile String lastConfigEtag = null;
+    private volatile String lastConfigDownloadMode = "None";
+    private volatile long lastConfigDownloadBytes = 0;
+    private volatile int configNotModifiedCount = 0;
+    private volatile int configPatchCount = 0;
+    
+    private final ObjectMapper configMapper = new ObjectMapper();
+    
+    /**
+     * Поля сервисов по классам: список объявленных полей вычисляется и делается доступным
+     * один раз на класс, а не при каждом сборе или применении конфига.
+     */
+    private final Map<Class<?>, Map<String, Field>> serviceFieldsCache = new ConcurrentHashMap<>();
+    
+    private volatile List<MockControllerClientBase> configurableServices;
+    
     /**
      * Инициализация RestTemplate после инъекции зависимостей.
      */
@@ -78,20 +130,45 @@ public class ConfigAggregator {
         SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
         factory.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(connectTimeoutSeconds));
         factory.setReadTimeout((int) TimeUnit.SECONDS.toMillis(readTimeoutSeconds));
-        return new RestTemplate(factory);
+        RestTemplate template = new RestTemplate(wireFormat.messageConverters());
+        template.setRequestFactory(factory);
+        return template;
     }
     
     /**
      * Находит все сервисы, наследующиеся от MockControllerClientBase.
+     * Набор бинов после старта не меняется, поэтому результат кешируется.
      */
     private List<MockControllerClientBase> getAllConfigurableServices() {
-        List<MockControllerClientBase> services = new ArrayList<>();
-        Map<String, MockControllerClientBase> beans = applicationContext.getBeansOfType(MockControllerClientBase.class);
-        services.addAll(beans.values());
-        logger.debug("Found {} configurable services", services.size());
+        List<MockControllerClientBase> services = configurableServices;
+        if (services == null) {
+            Map<String, MockControllerClientBase> beans = applicationContext.getBeansOfType(MockControllerClientBase.class);
+            services = List.copyOf(beans.values());
+            configurableServices = services;
+            logger.debug("Found {} configurable services", services.size());
+        }
         return services;
     }
     
+    /**
+     * Возвращает объявленные поля класса сервиса по имени (из кеша).
+     */
+    private Map<String, Field> getServiceFields(Class<?> clazz) {
+        return serviceFieldsCache.computeIfAbsent(clazz, c -> {
+            Map<String, Field> fields = new LinkedHashMap<>();
+            for (Field field : c.getDeclaredFields()) {
+                try {
+                    field.setAccessible(true);
+                    fields.put(field.getName(), field);
+                } catch (RuntimeException e) {
+                    logger.warn("Field {} in {} is not accessible and will be ignored: {}", 
+                        field.getName(), c.getSimpleName(), e.getMessage());
+                }
+            }
+            return fields;
+        });
+    }
+    
     /**
      * Собирает конфигурацию от всех сервисов в один общий конфиг.
      */
@@ -156,8 +233,7 @@ public class ConfigAggregator {
         Map<String, String> result = new HashMap<>();
         
         try {
-            Class<?> clazz = service.getClass();
-            Field[] fields = clazz.getDeclaredFields();
+            Map<String, Field> fields = getServiceFields(service.getClass());
             
             // Создаем варианты префикса с разным регистром
             if (prefix == null || prefix.isEmpty()) {
@@ -171,13 +247,12 @@ public class ConfigAggregator {
                 ? prefix.substring(0, 1).toUpperCase() + prefix.substring(1).toLowerCase()
                 : prefix;
             
-            for (Field field : fields) {
+            for (Field field : fields.values()) {
                 String fieldName = field.getName();
                 // Проверяем все варианты регистра
                 if (fieldName.startsWith(prefixLower) || 
                     fieldName.startsWith(prefixUpper) || 
                     fieldName.startsWith(prefixCapitalized)) {
-                    field.setAccessible(true);
                     Object value = field.get(service);
                     result.put(field.getName(), String.valueOf(value));
                 }
@@ -226,6 +301,18 @@ public class ConfigAggregator {
         
         for (MockControllerClientBase service : services) {
             applyConfigToService(service, config);
+            fieldsApplied(service);
+        }
+    }
+    
+    /**
+     * Сообщает сервису, что его поля записаны. Ошибка сервиса не мешает применению конфига.
+     */
+    private void fieldsApplied(MockControllerClientBase service) {
+        try {
+            service.onFieldsApplied();
+        } catch (RuntimeException e) {
+            logger.warn("Error in onFieldsApplied of {}: {}", service.getClass().getSimpleName(), e.getMessage());
         }
     }
     
@@ -237,8 +324,7 @@ public class ConfigAggregator {
     @SuppressWarnings("unchecked")
     private void applyConfigToService(MockControllerClientBase service, Map<String, Object> config) {
         try {
-            Class<?> clazz = service.getClass();
-            Field[] fields = clazz.getDeclaredFields();
+            Map<String, Field> fields = getServiceFields(service.getClass());
             
             // Применяем delays
             if (config.containsKey("delays")) {
@@ -246,7 +332,7 @@ public class ConfigAggregator {
                 if (delaysObj instanceof Map<?, ?>) {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> delays = (Map<String, Object>) delaysObj;
-                    applyFields(service, fields, delays);
+                    applyFields(service, fields, normalizeDelayUnits(delays));
                 }
             }
             
@@ -285,17 +371,99 @@ public class ConfigAggregator {
         }
     }
     
+    /**
+     * Применяет ко всем сервисам значения полей, вычисленные локально без обращения к MockController
+     * (например, таймлайнами). Значения задаются в единицах поля.
+     */
+    public void applyLocalValues(Map<String, Object> values) {
+        for (MockControllerClientBase service : getAllConfigurableServices()) {
+            Map<String, Field> fields = getServiceFields(service.getClass());
+            Map<String, Object> serviceValues = new HashMap<>();
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                if (fields.containsKey(entry.getKey())) {
+                    serviceValues.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!serviceValues.isEmpty()) {
+                applyFields(service, fields, serviceValues);
+                fieldsApplied(service);
+            }
+        }
+    }
+    
+    /**
+     * Повторно применяет текущие значения полей ко всем сервисам (прогрев пути применения конфига).
+     * Выполняется под блокировкой applyConfig, чтобы не откатить параллельно применяемую версию.
+     * Поля со значением null и пустые строки пропускаются: повторное применение превратило бы null
+     * в строку "null", а пустое значение applyFields отклоняет.
+     */
+    public synchronized void reapplyCurrentValues() {
+        for (MockControllerClientBase service : getAllConfigurableServices()) {
+            Map<String, Field> fields = getServiceFields(service.getClass());
+            Map<String, Object> values = new HashMap<>();
+            for (String fieldName : serviceFieldValues(service).keySet()) {
+                try {
+                    Object value = fields.get(fieldName).get(service);
+                    if (value != null && !(value instanceof String text && text.isBlank())) {
+                        values.put(fieldName, value);
+                    }
+                } catch (IllegalAccessException e) {
+                    logger.warn("Cannot read field {} in {}: {}", fieldName, service.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+            applyFields(service, fields, values);
+            fieldsApplied(service);
+        }
+    }
+    
+    /**
+     * Возвращает текущее значение поля из первого сервиса, в котором оно объявлено, или null.
+     */
+    public String getFieldValue(String fieldName) {
+        for (MockControllerClientBase service : getAllConfigurableServices()) {
+            Field field = findField(getServiceFields(service.getClass()), fieldName);
+            if (field != null) {
+                try {
+                    return String.valueOf(field.get(service));
+                } catch (IllegalAccessException e) {
+                    logger.warn("Cannot read field {} in {}: {}", fieldName, service.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Переводит значения задержек с суффиксом единицы ("250us", "1.5ms") в единицу поля,
+     * определяемую по его имени (см. DelayUnits). Значения без суффикса не меняются.
+     */
+    private Map<String, Object> normalizeDelayUnits(Map<String, Object> delays) {
+        Map<String, Object> normalized = new HashMap<>();
+        for (Map.Entry<String, Object> entry : delays.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String stringValue) {
+                try {
+                    value = DelayUnits.convert(stringValue, DelayUnits.unitOf(entry.getKey()));
+                } catch (NumberFormatException | ArithmeticException e) {
+                    // Оставляем исходное значение: applyFields пропустит его с предупреждением
+                    logger.debug("Cannot convert delay value '{}' for field {}: {}", value, entry.getKey(), e.getMessage());
+                }
+            }
+            normalized.put(entry.getKey(), value);
+        }
+        return normalized;
+    }
+    
     /**
      * Применяет поля к сервису (для delays, intParams и booleanVariables).
      */
-    private void applyFields(MockControllerClientBase service, Field[] fields, Map<String, Object> params) {
+    private void applyFields(MockControllerClientBase service, Map<String, Field> fields, Map<String, Object> params) {
         for (Map.Entry<String, Object> entry : params.entrySet()) {
             String fieldName = entry.getKey();
             Field field = findField(fields, fieldName);
             
             if (field != null) {
                 try {
-                    field.setAccessible(true);
                     String stringValue = String.valueOf(entry.getValue());
                     Object value = parseValue(field.getType(), stringValue);
                     field.set(service, value);
@@ -332,7 +500,7 @@ public class ConfigAggregator {
      * Применяет строковые поля к сервису (для stringParams) и возвращает счетчики.
      * @return массив [применено, пропущено]
      */
-    private int[] applyStringFieldsWithCount(MockControllerClientBase service, Field[] fields, Map<String, Object> params) {
+    private int[] applyStringFieldsWithCount(MockControllerClientBase service, Map<String, Field> fields, Map<String, Object> params) {
         int applied = 0;
         int skipped = 0;
         
@@ -342,7 +510,6 @@ public class ConfigAggregator {
             
             if (field != null) {
                 try {
-                    field.setAccessible(true);
                     String stringValue = String.valueOf(entry.getValue());
                     field.set(service, stringValue);
                     applied++;
@@ -374,20 +541,15 @@ public class ConfigAggregator {
      * @deprecated Используйте applyStringFieldsWithCount для получения статистики
      */
     @Deprecated
-    private void applyStringFields(MockControllerClientBase service, Field[] fields, Map<String, Object> params) {
+    private void applyStringFields(MockControllerClientBase service, Map<String, Field> fields, Map<String, Object> params) {
         applyStringFieldsWithCount(service, fields, params);
     }
     
     /**
      * Находит поле по имени.
      */
-    private Field findField(Field[] fields, String fieldName) {
-        for (Field field : fields) {
-            if (field.getName().equals(fieldName)) {
-                return field;
-            }
-        }
-        return null;
+    private Field findField(Map<String, Field> fields, String fieldName) {
+        return fields.get(fieldName);
     }
     
     /**
@@ -465,12 +627,27 @@ public class ConfigAggregator {
      * Проверяет обновления конфигурации в MockController.
      */
     public void checkUpdate() {
+        // Ведомый процесс получает конфиг из общего снимка хоста
+        if (sharedConfigSnapshot != null && sharedConfigSnapshot.isFollower()) {
+            logger.debug("Skipping checkUpdate: config is read from shared snapshot");
+            return;
+        }
+        
+        // Конфиг читается из локального файла (FileConfigSource)
+        if (mockControllerConfig != null && mockControllerConfig.isFileSource()) {
+            logger.debug("Skipping checkUpdate: config source is file");
+            return;
+        }
+        
         // Не выполняем checkUpdate если MockController не здоров
         if (healthcheckSender != null && !healthcheckSender.isMockControllerHealthy()) {
             logger.debug("Skipping checkUpdate: MockController is not healthy");
             return;
         }
         
+        CheckUpdateEvent event = new CheckUpdateEvent();
+        event.begin();
+        event.sentVersion = version;
         try {
             if (mockControllerConfig == null || appConfig == null || loggingConfig == null) {
                 logger.warn("MockController dependencies not initialized, skipping checkUpdate");
@@ -494,7 +671,8 @@ public class ConfigAggregator {
             logger.debug("Sending checkUpdate request with version: {}, systemName: {}", version, appConfig.getName());
             
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentType(wireFormat.requestContentType());
+            headers.setAccept(wireFormat.acceptTypes());
             
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
             
@@ -504,10 +682,14 @@ public class ConfigAggregator {
                 request,
                 CheckUpdateResponse.class
             );
+            wireFormat.onResponse(response.getHeaders().getContentType());
             
             CheckUpdateResponse responseBody = response.getBody();
             
             if (responseBody != null) {
+                event.success = true;
+                event.currentVersion = responseBody.getCurrentVersion();
+                event.needUpdate = responseBody.isNeedUpdate();
                 if (responseBody.getCurrentVersion() != null) {
                     this.version = responseBody.getCurrentVersion();
                 }
@@ -528,20 +710,33 @@ public class ConfigAggregator {
             }
             
         } catch (RestClientException e) {
+            event.error = e.getMessage();
             errorCount++;
             lastError = e.getMessage();
+            if (e instanceof HttpStatusCodeException statusException
+                    && statusException.getStatusCode().value() == HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()) {
+                logger.warn("MockController rejected {} request body, falling back to JSON", wireFormat.requestContentType());
+                wireFormat.onUnsupportedMediaType();
+            }
             logger.warn("MockController unavailable or error occurred (error #{}): {}. Application continues to work normally.", 
                 errorCount, e.getMessage());
         } catch (Exception e) {
+            event.error = e.getMessage();
             errorCount++;
             lastError = e.getMessage();
             logger.error("Unexpected error calling checkUpdate in MockController (error #{}): {}", 
                 errorCount, e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
     
     /**
      * Загружает конфигурацию из MockController и применяет её ко всем сервисам.
+     *
+     * Запрос отправляется с Accept-Encoding: gzip и, если конфиг уже применялся, с If-None-Match
+     * (ответ 304 - конфиг не изменился) и baseVersion (MockController может вернуть только изменения
+     * относительно примененной версии в поле patch вместо полного config).
      */
     private void loadAndApplyConfig(String version) {
         try {
@@ -571,45 +766,52 @@ public class ConfigAggregator {
                 return;
             }
             
-            String url = mockControllerConfig.getUrl() + "/api/configs/" + systemName + "?version=" + version;
-            
-            ResponseEntity<ConfigResponse> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                null,
-                ConfigResponse.class
-            );
+            ConfigResponse configResponse = downloadConfig(systemName, version, lastAppliedConfig != null);
+            if (configResponse == null) {
+                return;
+            }
             
-            ConfigResponse configResponse = response.getBody();
+            Map<String, Object> config;
+            if (configResponse.getPatch() != null) {
+                if (lastAppliedConfig == null || !Objects.equals(configResponse.getBaseVersion(), lastAppliedVersion)) {
+                    logger.warn("Config patch is based on version {}, but applied version is {}. Downloading full config.",
+                        configResponse.getBaseVersion(), lastAppliedVersion);
+                    configResponse = downloadConfig(systemName, version, false);
+                    if (configResponse == null || configResponse.getConfig() == null) {
+                        logger.warn("Empty response received when loading config");
+                        return;
+                    }
+                    config = configResponse.getConfig();
+                } else {
+                    logger.info("Config patch received from MockController (version: {}, base: {}), changed keys: {}",
+                        configResponse.getVersion(), configResponse.getBaseVersion(), configResponse.getPatch().keySet());
+                    config = ConfigPatch.apply(lastAppliedConfig, configResponse.getPatch());
+                    configPatchCount++;
+                    lastConfigDownloadMode = "patch";
+                }
+            } else if (configResponse.getConfig() != null) {
+                config = configResponse.getConfig();
+            } else {
+                logger.warn("Empty response received when loading config");
+                return;
+            }
             
-            if (configResponse != null && configResponse.getConfig() != null) {
+            if (configResponse.getConfig() != null) {
                 // Логируем полный конфиг, полученный от MockController
                 try {
-                    com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                    String configJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(configResponse.getConfig());
+                    String configJson = configMapper.writerWithDefaultPrettyPrinter().writeValueAsString(config);
                     logger.info("=== Full config received from MockController (version: {}) ===\n{}", 
                         configResponse.getVersion(), configJson);
                 } catch (Exception e) {
                     logger.warn("Failed to serialize received config to JSON: {}", e.getMessage());
                     logger.info("Received config summary: version={}, config keys={}", 
-                        configResponse.getVersion(), configResponse.getConfig().keySet());
-                }
-                
-                applyConfigToAllServices(configResponse.getConfig());
-                
-                // Обновляем уровень логирования
-                if (configResponse.getConfig().containsKey("loggingLv")) {
-                    String loggingLv = String.valueOf(configResponse.getConfig().get("loggingLv"));
-                    applyLoggingLevel(loggingLv);
-                    loggingConfig.setLoggingLevel(loggingLv);
+                        configResponse.getVersion(), config.keySet());
                 }
-                
-                this.version = configResponse.getVersion();
-                logger.info("Config applied successfully to all services, version: {}", configResponse.getVersion());
-            } else {
-                logger.warn("Empty response received when loading config");
+                lastConfigDownloadMode = "full";
             }
             
+            applyConfig(config, configResponse.getVersion() != null ? configResponse.getVersion() : version);
+            
         } catch (RestClientException e) {
             logger.warn("MockController unavailable when loading config: {}. Application continues to work with current configuration.", 
                 e.getMessage());
@@ -618,6 +820,170 @@ public class ConfigAggregator {
         }
     }
     
+    /**
+     * Выполняет GET /api/configs/{systemName}. Ответ в gzip распаковывается,
+     * тело читается в формате Content-Type ответа (см. WireFormat).
+     * @param conditional отправить If-None-Match и baseVersion для текущего примененного конфига
+     * @return ответ MockController или null, если конфиг не изменился (304)
+     */
+    private ConfigResponse downloadConfig(String systemName, String version, boolean conditional) throws IOException {
+        String url = mockControllerConfig.getUrl() + "/api/configs/" + systemName
+            + "?version=" + URLEncoder.encode(version, StandardCharsets.UTF_8);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(wireFormat.acceptTypes());
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (conditional) {
+            if (lastConfigEtag != null) {
+                headers.setIfNoneMatch(lastConfigEtag);
+            }
+            if (mockControllerConfig.isDeltaDownload() && lastAppliedVersion != null) {
+                url += "&baseVersion=" + URLEncoder.encode(lastAppliedVersion, StandardCharsets.UTF_8);
+            }
+        }
+        
+        ResponseEntity<byte[]> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        byte[] body = response.getBody();
+        lastConfigDownloadBytes = body != null ? body.length : 0;
+        
+        if (response.getStatusCode().value() == 304) {
+            configNotModifiedCount++;
+            lastConfigDownloadMode = "notModified";
+            logger.info("Config version {} is not modified (ETag {}), keeping applied config", version, lastConfigEtag);
+            markConfigUnchanged(version);
+            return null;
+        }
+        if (body == null || body.length == 0) {
+            logger.warn("Empty response received when loading config");
+            return null;
+        }
+        
+        String etag = response.getHeaders().getETag();
+        InputStream content = new ByteArrayInputStream(body);
+        if ("gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            content = new GZIPInputStream(content);
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        wireFormat.onResponse(contentType);
+        ConfigResponse configResponse = wireFormat.read(content, contentType, ConfigResponse.class);
+        lastConfigEtag = etag;
+        return configResponse;
+    }
+    
+    /**
+     * Новая версия в MockController совпадает по содержимому с примененным конфигом.
+     */
+    private synchronized void markConfigUnchanged(String version) {
+        lastAppliedVersion = version;
+        this.version = version;
+    }
+    
+    /**
+     * Вызывается, когда процесс стал лидером общего снимка хоста (SharedConfigSnapshot).
+     * Публикует последнюю примененную версию конфига под блокировкой applyConfig, чтобы не перезаписать
+     * более новую версию; если конфиг еще не применялся, сразу проверяет обновления в MockController.
+     */
+    public void onSharedSnapshotLeadership() {
+        synchronized (this) {
+            if (lastAppliedConfig != null) {
+                logger.info("Promoted to shared snapshot leader, publishing config version {}", lastAppliedVersion);
+                sharedConfigSnapshot.publish(lastAppliedConfig, lastAppliedVersion);
+                return;
+            }
+        }
+        logger.info("Promoted to shared snapshot leader without applied config, checking for updates");
+        checkUpdate();
+    }
+    
+    /**
+     * Применяет версию конфига ко всем сервисам и слушателям.
+     * Используется как для конфига из MockController, так и для конфига из общего снимка хоста.
+     */
+    public synchronized void applyConfig(Map<String, Object> config, String version) {
+        ConfigApplyEvent event = new ConfigApplyEvent();
+        // Снимок значений полей нужен только для события JFR, поэтому снимается, только если событие включено
+        Map<String, String> before = event.isEnabled() ? snapshotFieldValues() : null;
+        event.begin();
+        
+        applyConfigToAllServices(config);
+        notifyConfigApplied(config, version);
+        
+        // Обновляем уровень логирования
+        if (config.containsKey("loggingLv")) {
+            String loggingLv = String.valueOf(config.get("loggingLv"));
+            applyLoggingLevel(loggingLv);
+            loggingConfig.setLoggingLevel(loggingLv);
+        }
+        
+        String previousVersion = lastAppliedVersion;
+        lastAppliedVersion = version;
+        lastAppliedConfig = config;
+        this.version = version;
+        logger.info("Config applied successfully to all services, version: {}", version);
+        
+        event.end();
+        if (event.shouldCommit()) {
+            List<String> changedKeys = changedKeys(before, snapshotFieldValues());
+            event.version = version;
+            event.previousVersion = previousVersion;
+            event.changedKeys = changedKeys.size();
+            event.changedKeyNames = String.join(",", changedKeys);
+            event.commit();
+        }
+    }
+    
+    /**
+     * Возвращает текущие значения всех конфигурируемых полей сервисов (delay*, int*, string*, is*).
+     */
+    private Map<String, String> snapshotFieldValues() {
+        Map<String, String> values = new HashMap<>();
+        for (MockControllerClientBase service : getAllConfigurableServices()) {
+            values.putAll(serviceFieldValues(service));
+        }
+        return values;
+    }
+    
+    /**
+     * Возвращает строковые значения настраиваемых полей сервиса (delays, intParams, stringParams, booleanVariables).
+     */
+    private Map<String, String> serviceFieldValues(MockControllerClientBase service) {
+        Map<String, String> values = new HashMap<>();
+        values.putAll(extractDelays(service));
+        values.putAll(extractIntParams(service));
+        values.putAll(extractStringParams(service));
+        values.putAll(extractBooleanVariables(service));
+        return values;
+    }
+    
+    /**
+     * Возвращает имена полей, значения которых изменились.
+     */
+    private List<String> changedKeys(Map<String, String> before, Map<String, String> after) {
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : after.entrySet()) {
+            if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Уведомляет слушателей (правила ответов и т.п.) о применении новой версии конфига.
+     * Ошибка одного слушателя не мешает остальным.
+     */
+    private void notifyConfigApplied(Map<String, Object> config, String version) {
+        if (configApplyListeners == null) {
+            return;
+        }
+        configApplyListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onConfigApplied(config, version);
+            } catch (Exception e) {
+                logger.error("Error in config apply listener {}: {}", listener.getClass().getSimpleName(), e.getMessage(), e);
+            }
+        });
+    }
+    
     /**
      * Применяет уровень логирования.
      * Устанавливает уровень для:
@@ -653,6 +1019,8 @@ public class ConfigAggregator {
                     break;
             }
             
+            LoggingLevelChangeEvent event = new LoggingLevelChangeEvent();
+            event.begin();
             int updatedCount = 0;
             
             // 1. Устанавливаем уровень для root логгера (если он существует)
@@ -693,6 +1061,12 @@ public class ConfigAggregator {
                 }
             }
             
+            if (event.shouldCommit()) {
+                event.level = level.toString();
+                event.loggers = updatedCount;
+                event.commit();
+            }
+            
             // Логируем изменение уровня (используем System.out, чтобы это сообщение точно было видно)
             System.out.println("=== Logging level changed to " + levelStr + " for ROOT logger and " + updatedCount + " com.mock.* loggers ===");
         } catch (Exception e) {
@@ -726,6 +1100,11 @@ public class ConfigAggregator {
      */
     @Scheduled(fixedDelayString = "${mock-controller.check-interval-seconds:5}000")
     public void scheduledCheckUpdate() {
+        if ((sharedConfigSnapshot != null && sharedConfigSnapshot.isFollower())
+                || (mockControllerConfig != null && mockControllerConfig.isFileSource())) {
+            return;
+        }
+        
         // Не выполняем checkUpdate если MockController не здоров
         if (healthcheckSender != null && !healthcheckSender.isMockControllerHealthy()) {
             logger.debug("Skipping scheduled checkUpdate: MockController is not healthy");
@@ -739,6 +1118,13 @@ public class ConfigAggregator {
     }
     
     
+    /**
+     * Возвращает текущую версию конфига.
+     */
+    public String getVersion() {
+        return version;
+    }
+    
     /**
      * Возвращает информацию о последней проверке конфигурации.
      */
@@ -751,11 +1137,26 @@ public class ConfigAggregator {
         status.put("currentVersion", version);
         status.put("checkIntervalSeconds", mockControllerConfig != null ? mockControllerConfig.getCheckIntervalSeconds() : 5);
         status.put("mockControllerUrl", mockControllerConfig != null ? mockControllerConfig.getUrl() : "Not configured");
+        status.put("configSource", mockControllerConfig != null ? mockControllerConfig.getSource() : "controller");
+        status.put("lastConfigDownloadMode", lastConfigDownloadMode);
+        status.put("lastConfigDownloadBytes", lastConfigDownloadBytes);
+        status.put("configNotModifiedCount", configNotModifiedCount);
+        status.put("configPatchCount", configPatchCount);
+        status.putAll(wireFormat.getStatus());
         long timeSinceLastCheck = lastCheckUpdateTime > 0 ? (System.currentTimeMillis() - lastCheckUpdateTime) / 1000 : -1;
         status.put("secondsSinceLastCheck", timeSinceLastCheck);
         status.put("servicesCount", getAllConfigurableServices().size());
         status.put("isMockControllerAvailable", errorCount == 0 || (timeSinceLastCheck >= 0 && timeSinceLastCheck < 10));
         
+        // Точность задержек из DelayTimer
+        if (delayTimer != null) {
+            status.putAll(delayTimer.getStatus());
+        }
+        
+        if (sharedConfigSnapshot != null) {
+            status.putAll(sharedConfigSnapshot.getStatus());
+        }
+        
         // Healthcheck информация из HealthcheckSender
         if (healthcheckSender != null) {
             HealthcheckSender.HealthcheckInfo healthcheckInfo = healthcheckSender.getHealthcheckInfo();
@@ -811,6 +1212,8 @@ public class ConfigAggregator {
         private String systemName;
         private String version;
         private Map<String, Object> config;
+        private String baseVersion;
+        private Map<String, Object> patch;
         private String updatedAt;
         
         public String getSystemName() {
@@ -837,6 +1240,25 @@ public class ConfigAggregator {
             this.config = config;
         }
         
+        public String getBaseVersion() {
+            return baseVersion;
+        }
+        
+        public void setBaseVersion(String baseVersion) {
+            this.baseVersion = baseVersion;
+        }
+        
+        /**
+         * Изменения относительно baseVersion в формате JSON Merge Patch (вместо полного config).
+         */
+        public Map<String, Object> getPatch() {
+            return patch;
+        }
+        
+        public void setPatch(Map<String, Object> patch) {
+            this.patch = patch;
+        }
+        
         public String getUpdatedAt() {
             return updatedAt;
         }
@@ -0,0 +1,18 @@
+package com.mock.config;
+
+import java.util.Map;
+
+/**
+ * Слушатель применения новой версии конфигурации.
+ * ConfigAggregator вызывает всех слушателей после того, как значения полей применены к сервисам.
+ * Используется для секций конфигурации, которые не являются полями сервисов (например, rules).
+ */
+public interface ConfigApplyListener {
+    
+    /**
+     * Вызывается после применения конфигурации.
+     * @param config полный конфиг, полученный от MockController
+     * @param version версия примененного конфига
+     */
+    void onConfigApplied(Map<String, Object> config, String version);
+}
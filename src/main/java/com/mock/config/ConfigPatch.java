@@ -0,0 +1,64 @@
+package com.mock.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Изменения конфига в формате JSON Merge Patch (RFC 7386).
+ *
+ * Объекты объединяются рекурсивно, null удаляет ключ, остальные значения заменяются.
+ * Исходный конфиг не изменяется: слушатели могут хранить ссылки на секции примененной версии.
+ */
+public final class ConfigPatch {
+    
+    private ConfigPatch() {
+    }
+    
+    /**
+     * Возвращает конфиг target с примененными изменениями patch.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> apply(Map<String, Object> target, Map<String, Object> patch) {
+        Map<String, Object> result = target != null ? new LinkedHashMap<>(target) : new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                result.remove(entry.getKey());
+            } else if (value instanceof Map<?, ?> section) {
+                Object existing = result.get(entry.getKey());
+                result.put(entry.getKey(), apply(existing instanceof Map<?, ?> existingSection
+                    ? (Map<String, Object>) existingSection : null, (Map<String, Object>) section));
+            } else {
+                result.put(entry.getKey(), value);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Возвращает изменения, которые переводят конфиг from в конфиг to.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> diff(Map<String, Object> from, Map<String, Object> to) {
+        Map<String, Object> patch = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : to.entrySet()) {
+            Object previous = from.get(entry.getKey());
+            Object value = entry.getValue();
+            if (value instanceof Map<?, ?> section && previous instanceof Map<?, ?> previousSection) {
+                Map<String, Object> sectionPatch = diff((Map<String, Object>) previousSection, (Map<String, Object>) section);
+                if (!sectionPatch.isEmpty()) {
+                    patch.put(entry.getKey(), sectionPatch);
+                }
+            } else if (!from.containsKey(entry.getKey()) || !Objects.equals(previous, value)) {
+                patch.put(entry.getKey(), value);
+            }
+        }
+        for (String key : from.keySet()) {
+            if (!to.containsKey(key)) {
+                patch.put(key, null);
+            }
+        }
+        return patch;
+    }
+}
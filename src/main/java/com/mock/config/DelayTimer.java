@@ -0,0 +1,133 @@
+package com.mock.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Таймер задержек ответов с точностью до микросекунд.
+ *
+ * Thread.sleep и LockSupport.parkNanos просыпаются с опозданием в десятки микросекунд,
+ * что сравнимо с эмулируемыми задержками кешей (50-800 мкс). Поэтому основная часть задержки
+ * выполняется через parkNanos, а последний отрезок длиной spinThreshold - активным ожиданием.
+ * Порог калибруется при старте по измеренному опозданию parkNanos или задается свойством
+ * mock-controller.delay-spin-threshold-micros.
+ * Активное ожидание занимает ядро, поэтому оно применяется только к задержкам меньше миллисекунды
+ * и к задержкам, заданным в микросекундах или наносекундах; остальные выдерживаются только parkNanos.
+ *
+ * Отклонение фактической задержки от заданной (skew) накапливается и выводится в /config/status.
+ */
+@Component
+public class DelayTimer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DelayTimer.class);
+    
+    private static final int CALIBRATION_ROUNDS = 200;
+    private static final long CALIBRATION_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MIN_SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final long MAX_SPIN_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SPIN_MAX_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    @Value("${mock-controller.delay-spin-threshold-micros:0}")
+    private long configuredSpinThresholdMicros;
+    
+    /**
+     * На одном ядре активное ожидание отнимает процессор у остальных потоков, поэтому вместо
+     * Thread.onSpinWait последний отрезок выполняется через Thread.yield.
+     */
+    private final boolean yieldWhileSpinning = Runtime.getRuntime().availableProcessors() == 1;
+    
+    private volatile long spinThresholdNanos = MIN_SPIN_THRESHOLD_NANOS;
+    
+    private final LongAdder delayCount = new LongAdder();
+    private final LongAdder totalSkewNanos = new LongAdder();
+    private final AtomicLong maxSkewNanos = new AtomicLong();
+    
+    @PostConstruct
+    public void calibrate() {
+        if (configuredSpinThresholdMicros > 0) {
+            spinThresholdNanos = TimeUnit.MICROSECONDS.toNanos(configuredSpinThresholdMicros);
+            logger.info("Delay spin threshold set to {} us", configuredSpinThresholdMicros);
+            return;
+        }
+        
+        // Порог - 90-й перцентиль опоздания parkNanos на этой машине
+        long[] overshoots = new long[CALIBRATION_ROUNDS];
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            LockSupport.parkNanos(CALIBRATION_PARK_NANOS);
+            overshoots[i] = Math.max(0, System.nanoTime() - start - CALIBRATION_PARK_NANOS);
+        }
+        Arrays.sort(overshoots);
+        long p90 = overshoots[CALIBRATION_ROUNDS * 9 / 10];
+        spinThresholdNanos = Math.min(MAX_SPIN_THRESHOLD_NANOS, Math.max(MIN_SPIN_THRESHOLD_NANOS, p90));
+        logger.info("Calibrated delay spin threshold: {} us (parkNanos overshoot p90: {} us)",
+            TimeUnit.NANOSECONDS.toMicros(spinThresholdNanos), TimeUnit.NANOSECONDS.toMicros(p90));
+    }
+    
+    /**
+     * Блокирует текущий поток на заданное количество наносекунд.
+     * При прерывании потока ожидание завершается досрочно, флаг прерывания сохраняется.
+     * @param precise задержка задана в микросекундах или наносекундах (см. StubResponse.isPreciseDelay)
+     */
+    public void sleepNanos(long delayNanos, boolean precise) {
+        if (delayNanos <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + delayNanos;
+        long threshold = isSpinDelay(delayNanos, precise) ? spinThresholdNanos : 0;
+        
+        long remaining = delayNanos;
+        while (remaining > threshold) {
+            LockSupport.parkNanos(remaining - threshold);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0) {
+            if (yieldWhileSpinning) {
+                Thread.yield();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        
+        long skew = System.nanoTime() - deadline;
+        delayCount.increment();
+        totalSkewNanos.add(skew);
+        maxSkewNanos.accumulateAndGet(skew, Math::max);
+    }
+    
+    /**
+     * true, если задержка выдерживается с активным ожиданием: она меньше миллисекунды или задана
+     * в микросекундах или наносекундах. Такую задержку нельзя точно выдержать таймером планировщика.
+     */
+    public boolean isSpinDelay(long delayNanos, boolean precise) {
+        return precise || delayNanos < SPIN_MAX_DELAY_NANOS;
+    }
+    
+    /**
+     * Возвращает порог активного ожидания и накопленное отклонение задержек.
+     */
+    public Map<String, Object> getStatus() {
+        long count = delayCount.sum();
+        Map<String, Object> status = new HashMap<>();
+        status.put("delaySpinThresholdMicros", TimeUnit.NANOSECONDS.toMicros(spinThresholdNanos));
+        status.put("delayCount", count);
+        status.put("delayMeanSkewMicros", count > 0 ? totalSkewNanos.sum() / 1000.0 / count : 0.0);
+        status.put("delayMaxSkewMicros", maxSkewNanos.get() / 1000.0);
+        return status;
+    }
+}
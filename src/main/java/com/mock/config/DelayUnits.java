@@ -0,0 +1,86 @@
+package com.mock.config;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Единицы измерения задержек.
+ *
+ * Единица поля задержки определяется суффиксом имени: delay*Us - микросекунды,
+ * delay*Ns - наносекунды, остальные поля delay* - миллисекунды (как раньше).
+ * Значение из MockController может содержать суффикс единицы ("250us", "1.5ms", "2s"),
+ * тогда оно переводится в единицу поля.
+ */
+public final class DelayUnits {
+    
+    private DelayUnits() {
+    }
+    
+    /**
+     * Возвращает единицу поля задержки по суффиксу имени.
+     */
+    public static TimeUnit unitOf(String fieldName) {
+        if (fieldName.endsWith("Us") || fieldName.endsWith("_US")) {
+            return TimeUnit.MICROSECONDS;
+        }
+        if (fieldName.endsWith("Ns") || fieldName.endsWith("_NS")) {
+            return TimeUnit.NANOSECONDS;
+        }
+        return TimeUnit.MILLISECONDS;
+    }
+    
+    /**
+     * Переводит значение поля задержки в наносекунды с учетом единицы поля.
+     */
+    public static long toNanos(String fieldName, long value) {
+        return unitOf(fieldName).toNanos(value);
+    }
+    
+    /**
+     * Переводит строковое значение задержки в целое число в заданной единице.
+     * Значение без суффикса считается уже заданным в этой единице и возвращается как есть.
+     * @throws NumberFormatException если значение или суффикс не распознаны
+     */
+    public static String convert(String value, TimeUnit targetUnit) {
+        String trimmed = value.trim();
+        TimeUnit sourceUnit = null;
+        String number = trimmed;
+        if (trimmed.endsWith("ns")) {
+            sourceUnit = TimeUnit.NANOSECONDS;
+            number = trimmed.substring(0, trimmed.length() - 2);
+        } else if (trimmed.endsWith("us") || trimmed.endsWith("µs")) {
+            sourceUnit = TimeUnit.MICROSECONDS;
+            number = trimmed.substring(0, trimmed.length() - 2);
+        } else if (trimmed.endsWith("ms")) {
+            sourceUnit = TimeUnit.MILLISECONDS;
+            number = trimmed.substring(0, trimmed.length() - 2);
+        } else if (trimmed.endsWith("s")) {
+            sourceUnit = TimeUnit.SECONDS;
+            number = trimmed.substring(0, trimmed.length() - 1);
+        }
+        if (sourceUnit == null) {
+            return trimmed;
+        }
+        BigDecimal nanos = new BigDecimal(number.trim()).multiply(BigDecimal.valueOf(sourceUnit.toNanos(1)));
+        BigDecimal converted = nanos.divide(BigDecimal.valueOf(targetUnit.toNanos(1)), 0, RoundingMode.HALF_UP);
+        return converted.toBigIntegerExact().toString();
+    }
+    
+    /**
+     * Читает задержку правила или перехода сценария: ключ "delayUs" (микросекунды)
+     * или "delayMs" (миллисекунды).
+     * @return задержка в наносекундах или null, если задержка не задана
+     * @throws NumberFormatException если значение не является числом
+     */
+    public static Long readDelayNanos(Map<?, ?> map) {
+        if (map.get("delayUs") != null) {
+            return TimeUnit.MICROSECONDS.toNanos(Long.parseLong(String.valueOf(map.get("delayUs")).trim()));
+        }
+        if (map.get("delayMs") != null) {
+            return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(String.valueOf(map.get("delayMs")).trim()));
+        }
+        return null;
+    }
+}
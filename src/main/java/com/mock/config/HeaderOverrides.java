@@ -0,0 +1,95 @@
+package com.mock.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переопределение задержки и статуса ответа заголовками запроса (mock-controller.header-overrides.enabled).
+ *
+ * X-Mock-Delay-Ms / X-Mock-Delay-Us задают задержку, X-Mock-Status - статус только для этого запроса
+ * (100-999; коды gRPC 0-16 - только для gRPC методов), поэтому параллельные наборы тестов могут использовать одну заглушку с разными задержками
+ * без публикации версий конфига. Значения разбираются без создания объектов;
+ * некорректное значение игнорируется.
+ */
+@Component
+public class HeaderOverrides {
+    
+    public static final String DELAY_MS_HEADER = "X-Mock-Delay-Ms";
+    public static final String DELAY_US_HEADER = "X-Mock-Delay-Us";
+    public static final String STATUS_HEADER = "X-Mock-Status";
+    
+    @Value("${mock-controller.header-overrides.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${mock-controller.header-overrides.max-delay-ms:600000}")
+    private long maxDelayMs;
+    
+    /**
+     * Применяет заголовки переопределения к ответу. Без заголовков возвращает исходный ответ.
+     */
+    public StubResponse apply(StubRequest request, StubResponse response) {
+        if (!enabled) {
+            return response;
+        }
+        long delayNanos = -1;
+        boolean preciseDelay = false;
+        long delayMs = parseNonNegative(request.getHeader(DELAY_MS_HEADER));
+        if (delayMs >= 0) {
+            delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.min(delayMs, maxDelayMs));
+        } else {
+            long delayUs = parseNonNegative(request.getHeader(DELAY_US_HEADER));
+            if (delayUs >= 0) {
+                delayNanos = TimeUnit.MICROSECONDS.toNanos(Math.min(delayUs, TimeUnit.MILLISECONDS.toMicros(maxDelayMs)));
+                preciseDelay = true;
+            }
+        }
+        long status = parseNonNegative(request.getHeader(STATUS_HEADER));
+        
+        StubResponse result = response;
+        if (delayNanos >= 0) {
+            result = result.withDelayNanos(delayNanos, preciseDelay);
+        }
+        if (isValidStatus(status, request.isGrpc())) {
+            result = result.withStatus((int) status);
+        }
+        return result;
+    }
+    
+    private static boolean isValidStatus(long status, boolean grpc) {
+        return (status >= 100 && status <= 999) || (grpc && status >= 0 && status <= 16);
+    }
+    
+    /**
+     * Разбирает десятичное неотрицательное число.
+     * @return значение или -1, если заголовка нет или значение некорректно
+     */
+    static long parseNonNegative(String value) {
+        if (value == null) {
+            return -1;
+        }
+        int length = value.length();
+        int start = 0;
+        while (start < length && value.charAt(start) == ' ') {
+            start++;
+        }
+        int end = length;
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        // Больше 18 цифр не помещается в long без проверки переполнения
+        if (start == end || end - start > 18) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
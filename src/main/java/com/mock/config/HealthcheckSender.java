@@ -1,17 +1,23 @@
 package com.mock.config;
 
+import com.mock.config.jfr.HealthcheckEvent;
+import com.mock.config.shared.SharedConfigSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.List;
+
 /**
  * Компонент для отправки healthcheck в MockController.
- * Отправляет информацию о состоянии заглушки каждую минуту.
+ * Отправляет информацию о состоянии заглушки каждую минуту (mock-controller.healthcheck-interval-seconds).
  * Если healthcheck не проходит, блокирует все вызовы к MockController кроме самого healthcheck.
  */
 @Component
@@ -25,8 +31,14 @@ public class HealthcheckSender {
     @Value("${spring.application.name}")
     private String systemName;
     
+    @Value("${mock-controller.source:controller}")
+    private String configSource;
+    
+    @Autowired
+    private SharedConfigSnapshot sharedConfigSnapshot;
+    
     private static final String instanceId = String.valueOf(System.nanoTime());
-
+    
     private final RestTemplate restTemplate;
     private volatile boolean isMockControllerHealthy = true; // По умолчанию считаем здоровым
     private volatile long lastHealthcheckTime = 0;
@@ -34,15 +46,23 @@ public class HealthcheckSender {
     private volatile int healthcheckFailureCount = 0;
     
     public HealthcheckSender() {
-        this.restTemplate = new RestTemplate();
+        // Ответ healthcheck читается как строка: конвертеры JSON и бинарных форматов не нужны
+        this.restTemplate = new RestTemplate(List.of(new StringHttpMessageConverter()));
     }
     
     /**
      * Отправляет healthcheck в MockController каждую минуту.
      * Если healthcheck не проходит, блокирует все вызовы к MockController.
      */
-    @Scheduled(fixedRate = 60000) // Каждую минуту
+    @Scheduled(fixedRateString = "${mock-controller.healthcheck-interval-seconds:60}000")
     public void sendHealthcheck() {
+        // Ведомый процесс общего снимка хоста и процесс с локальным конфигом не обращаются к MockController
+        if ("file".equalsIgnoreCase(configSource)
+                || (sharedConfigSnapshot != null && sharedConfigSnapshot.isFollower())) {
+            return;
+        }
+        HealthcheckEvent event = new HealthcheckEvent();
+        event.begin();
         try {
             // Определяем instanceId один раз при запуске
             String url = mockControllerUrl + "/api/healthcheck" 
@@ -58,6 +78,7 @@ public class HealthcheckSender {
             
             // Проверяем статус 200
             int statusCode = response.getStatusCode().value();
+            event.statusCode = statusCode;
             if (statusCode == 200) {
                 isMockControllerHealthy = true;
                 healthcheckFailureCount = 0;
@@ -69,14 +90,19 @@ public class HealthcheckSender {
                     statusCode, duration, healthcheckFailureCount);
             }
         } catch (RestClientException e) {
+            event.error = e.getMessage();
             isMockControllerHealthy = false;
             healthcheckFailureCount++;
             log.warn("Healthcheck failed: {} (failure #{})", e.getMessage(), healthcheckFailureCount);
         } catch (Exception e) {
+            event.error = e.getMessage();
             isMockControllerHealthy = false;
             healthcheckFailureCount++;
             log.error("Unexpected error during healthcheck (failure #{}): {}", 
                 healthcheckFailureCount, e.getMessage(), e);
+        } finally {
+            event.healthy = isMockControllerHealthy;
+            event.commit();
         }
     }
     
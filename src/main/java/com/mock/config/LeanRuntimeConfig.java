@@ -0,0 +1,61 @@
+package com.mock.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Профиль "lean" для плотного размещения заглушек на одном хосте (см. application-lean.yml).
+ *
+ * В профиле бины создаются лениво (spring.main.lazy-initialization), кроме компонентов с задачами
+ * по расписанию, обработчиками событий и @PostConstruct: синхронизация с MockController,
+ * healthcheck и таймлайны должны запускаться сразу, а не при первом запросе.
+ * Сервлетный сервер использует только конвертеры byte[], строк и JSON: конвертеры по умолчанию
+ * создают мапперы Smile и CBOR, которые заглушке не нужны.
+ */
+@Configuration
+@Profile("lean")
+public class LeanRuntimeConfig {
+    
+    private static final List<Class<? extends Annotation>> EAGER_ANNOTATIONS =
+        List.of(Scheduled.class, EventListener.class, PostConstruct.class);
+    
+    @Bean
+    public static LazyInitializationExcludeFilter eagerMockComponents() {
+        return (beanName, beanDefinition, beanType) ->
+            beanType.getName().startsWith("com.mock.") && hasEagerMethod(beanType);
+    }
+    
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public HttpMessageConverters leanHttpMessageConverters(StringHttpMessageConverter stringConverter,
+                                                           MappingJackson2HttpMessageConverter jsonConverter) {
+        return new HttpMessageConverters(false, List.of(new ByteArrayHttpMessageConverter(), stringConverter, jsonConverter));
+    }
+    
+    private static boolean hasEagerMethod(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> {
+            for (Class<? extends Annotation> annotation : EAGER_ANNOTATIONS) {
+                if (method.isAnnotationPresent(annotation)) {
+                    found.set(true);
+                }
+            }
+        });
+        return found.get();
+    }
+}
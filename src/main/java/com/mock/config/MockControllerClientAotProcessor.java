@@ -0,0 +1,28 @@
+package com.mock.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.beans.factory.aot.BeanRegistrationAotContribution;
+import org.springframework.beans.factory.aot.BeanRegistrationAotProcessor;
+import org.springframework.beans.factory.support.RegisteredBean;
+
+/**
+ * Генерирует метаданные рефлексии для наследников MockControllerClientBase при AOT-обработке
+ * (профили cds и native).
+ *
+ * ConfigAggregator читает и записывает поля delay*, int*, string* и is* через рефлексию.
+ * В native image такие поля доступны только при наличии reflection hints, поэтому для каждого
+ * найденного бина-наследника регистрируется доступ к его объявленным полям.
+ */
+class MockControllerClientAotProcessor implements BeanRegistrationAotProcessor {
+    
+    @Override
+    public BeanRegistrationAotContribution processAheadOfTime(RegisteredBean registeredBean) {
+        Class<?> beanClass = registeredBean.getBeanClass();
+        if (!MockControllerClientBase.class.isAssignableFrom(beanClass)) {
+            return null;
+        }
+        return (generationContext, beanRegistrationCode) -> generationContext.getRuntimeHints()
+            .reflection()
+            .registerType(beanClass, MemberCategory.DECLARED_FIELDS);
+    }
+}
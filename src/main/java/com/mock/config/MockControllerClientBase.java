@@ -3,6 +3,9 @@ package com.mock.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Базовый класс для сервисов, которые хотят подключиться к MockController.
  * Наследуйтесь от этого класса, чтобы автоматически получить функциональность
@@ -17,5 +20,21 @@ import org.slf4j.LoggerFactory;
 public class MockControllerClientBase {
     
     protected static final Logger logger = LoggerFactory.getLogger(MockControllerClientBase.class);
+    
+    /**
+     * Вызывается ConfigAggregator после записи полей сервиса (версия конфига, значения таймлайнов).
+     * Сервис может пересобрать здесь ответы, которые зависят только от полей.
+     */
+    protected void onFieldsApplied() {
+    }
+    
+    /**
+     * Возвращает current, если пересобранное тело ответа не изменилось, иначе неизменяемое rebuilt.
+     * Пока поля не меняются, сервис отдает один и тот же экземпляр тела, и CompressedBodyCache
+     * находит заранее сжатое тело сравнением ссылок.
+     */
+    protected static Map<String, Object> reuseBody(Map<String, Object> current, Map<String, Object> rebuilt) {
+        return rebuilt.equals(current) ? current : Collections.unmodifiableMap(rebuilt);
+    }
 }
 
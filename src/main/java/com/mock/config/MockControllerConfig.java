@@ -12,6 +12,26 @@ public class MockControllerConfig {
     private long connectTimeoutSeconds = 10;
     private long readTimeoutSeconds = 10;
     
+    /**
+     * Источник конфига: controller - MockController (по умолчанию), file - локальный файл или каталог.
+     */
+    private String source = "controller";
+    
+    /**
+     * Файл или каталог с конфигом в формате ответа GET /api/configs/{systemName} (для source: file).
+     */
+    private String filePath = "mock-config";
+    
+    /**
+     * Запрашивать у MockController только изменения относительно примененной версии (baseVersion).
+     */
+    private boolean deltaDownload = true;
+    
+    /**
+     * Формат обмена с MockController: json, smile или cbor (с откатом на JSON, см. WireFormat).
+     */
+    private String wireFormat = "json";
+    
     public String getUrl() {
         return url;
     }
@@ -43,5 +63,43 @@ public class MockControllerConfig {
     public void setReadTimeoutSeconds(long readTimeoutSeconds) {
         this.readTimeoutSeconds = readTimeoutSeconds;
     }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public void setSource(String source) {
+        this.source = source;
+    }
+    
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    public boolean isDeltaDownload() {
+        return deltaDownload;
+    }
+    
+    public void setDeltaDownload(boolean deltaDownload) {
+        this.deltaDownload = deltaDownload;
+    }
+    
+    public String getWireFormat() {
+        return wireFormat;
+    }
+    
+    public void setWireFormat(String wireFormat) {
+        this.wireFormat = wireFormat;
+    }
+    
+    /**
+     * true, если конфиг читается из локального файла, а не из MockController.
+     */
+    public boolean isFileSource() {
+        return "file".equalsIgnoreCase(source);
+    }
 }
-
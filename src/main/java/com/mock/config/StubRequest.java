@@ -0,0 +1,134 @@
+package com.mock.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Описание входящего запроса к эндпоинту заглушки.
+ * Не зависит от веб-стека: заголовки и query-параметры читаются лениво,
+ * поэтому построение запроса не копирует данные исходного запроса.
+ *
+ * Значения адресуются ключами вида "источник.имя":
+ * path.id, query.mode, header.X-Region, body.login, body.user.name
+ */
+public class StubRequest {
+    
+    public static final String PATH_PREFIX = "path.";
+    public static final String QUERY_PREFIX = "query.";
+    public static final String HEADER_PREFIX = "header.";
+    public static final String BODY_PREFIX = "body.";
+    
+    private final String endpoint;
+    private final Map<String, String> pathVariables;
+    private final Function<String, String> queryParams;
+    private final Function<String, String> headers;
+    private final Map<String, Object> body;
+    private final boolean grpc;
+    
+    public StubRequest(String endpoint,
+                       Map<String, String> pathVariables,
+                       Function<String, String> queryParams,
+                       Function<String, String> headers,
+                       Map<String, Object> body) {
+        this(endpoint, pathVariables, queryParams, headers, body, false);
+    }
+    
+    /**
+     * @param grpc вызов gRPC метода: статус ответа - код gRPC (0-16), а не HTTP статус
+     */
+    public StubRequest(String endpoint,
+                       Map<String, String> pathVariables,
+                       Function<String, String> queryParams,
+                       Function<String, String> headers,
+                       Map<String, Object> body,
+                       boolean grpc) {
+        this.grpc = grpc;
+        this.endpoint = endpoint;
+        this.pathVariables = pathVariables != null ? pathVariables : Collections.emptyMap();
+        this.queryParams = queryParams != null ? queryParams : name -> null;
+        this.headers = headers != null ? headers : name -> null;
+        this.body = body;
+    }
+    
+    /**
+     * Создает запрос из HttpServletRequest (servlet-режим).
+     * Path-переменные берутся из атрибута, который выставляет Spring MVC при сопоставлении шаблона URI.
+     */
+    @SuppressWarnings("unchecked")
+    public static StubRequest fromServletRequest(String endpoint, HttpServletRequest request, Map<String, Object> body) {
+        Object uriVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Map<String, String> pathVariables = uriVariables instanceof Map<?, ?>
+            ? (Map<String, String>) uriVariables
+            : Collections.emptyMap();
+        return new StubRequest(endpoint, pathVariables, request::getParameter, request::getHeader, body);
+    }
+    
+    /**
+     * Идентификатор эндпоинта заглушки (например, "hello" или "userLogin").
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public String getPathVariable(String name) {
+        return pathVariables.get(name);
+    }
+    
+    public String getQueryParam(String name) {
+        return queryParams.apply(name);
+    }
+    
+    public String getHeader(String name) {
+        return headers.apply(name);
+    }
+    
+    public Map<String, Object> getBody() {
+        return body;
+    }
+    
+    public boolean isGrpc() {
+        return grpc;
+    }
+    
+    /**
+     * Возвращает значение по ключу вида "источник.имя" или null, если значения нет.
+     * Для тела запроса поддерживаются вложенные поля через точку (body.user.login).
+     */
+    public String lookup(String key) {
+        if (key == null) {
+            return null;
+        }
+        if (key.startsWith(PATH_PREFIX)) {
+            return getPathVariable(key.substring(PATH_PREFIX.length()));
+        }
+        if (key.startsWith(QUERY_PREFIX)) {
+            return getQueryParam(key.substring(QUERY_PREFIX.length()));
+        }
+        if (key.startsWith(HEADER_PREFIX)) {
+            return getHeader(key.substring(HEADER_PREFIX.length()));
+        }
+        if (key.startsWith(BODY_PREFIX)) {
+            return lookupBodyField(key.substring(BODY_PREFIX.length()));
+        }
+        return null;
+    }
+    
+    private String lookupBodyField(String path) {
+        Object current = body;
+        int start = 0;
+        while (current instanceof Map<?, ?> map && start <= path.length()) {
+            int dot = path.indexOf('.', start);
+            String name = dot < 0 ? path.substring(start) : path.substring(start, dot);
+            current = map.get(name);
+            if (dot < 0) {
+                return current != null ? String.valueOf(current) : null;
+            }
+            start = dot + 1;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,337 @@
+package com.mock.config;
+
+import com.mock.config.admission.AdmissionController;
+import com.mock.config.admission.EndpointBulkheads;
+import com.mock.config.callback.CallbackDispatcher;
+import com.mock.config.compression.CompressedBodyCache;
+import com.mock.config.jfr.ResponseDelayEvent;
+import com.mock.config.latency.LatencyModels;
+import com.mock.config.rules.ResponseRules;
+import com.mock.config.scenario.ScenarioEngine;
+import com.mock.config.stats.EndpointStatsRegistry;
+import com.mock.config.warmup.WarmupStage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Формирует итоговый ответ эндпоинта заглушки:
+ * применяет переходы сценариев и правила из MockController к ответу по умолчанию,
+ * проверяет лимиты AdmissionController и EndpointBulkheads, планирует обратные вызовы, выдерживает задержку
+ * и строит ResponseEntity.
+ */
+@Component
+public class StubResponder {
+    
+    /**
+     * Таймаут DeferredResult: без ограничения, ответ ограничен задержкой и очередью эндпоинта
+     * (таймаут асинхронного запроса Tomcat по умолчанию 30 секунд прервал бы длинные задержки).
+     */
+    private static final long NO_TIMEOUT = 0L;
+    
+    @Autowired
+    private ResponseRules responseRules;
+    
+    @Autowired
+    private ScenarioEngine scenarioEngine;
+    
+    @Autowired
+    private LatencyModels latencyModels;
+    
+    @Autowired
+    private HeaderOverrides headerOverrides;
+    
+    @Autowired
+    private DelayTimer delayTimer;
+    
+    @Autowired
+    private EndpointStatsRegistry endpointStatsRegistry;
+    
+    @Autowired
+    private AdmissionController admissionController;
+    
+    @Autowired
+    private CompressedBodyCache compressedBodyCache;
+    
+    @Autowired
+    private CallbackDispatcher callbackDispatcher;
+    
+    @Autowired
+    private WarmupStage warmupStage;
+    
+    @Autowired
+    private EndpointBulkheads endpointBulkheads;
+    
+    private final ScheduledExecutorService delayScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stub-delay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Определяет итоговый ответ без выполнения задержки.
+     * Сначала выполняется переход сценария, затем правила, поэтому правило может уточнить ответ сценария.
+     * Задержка затем пересчитывается моделью нагрузки эндпоинта (LatencyModels) по числу запросов в обработке.
+     * Заголовки переопределения (HeaderOverrides) применяются последними.
+     */
+    public StubResponse resolve(StubRequest request, StubResponse defaults) {
+        StubResponse response = responseRules.apply(request, scenarioEngine.apply(request, defaults));
+        response = latencyModels.apply(request.getEndpoint(), response, endpointStatsRegistry.inFlight(request.getEndpoint()));
+        return headerOverrides.apply(request, response);
+    }
+    
+    /**
+     * Возвращает ответ эндпоинта.
+     * Тело по умолчанию отдается в gzip из CompressedBodyCache, если клиент его принимает.
+     * @return ResponseEntity, если ответ готов в текущем потоке, или DeferredResult, который завершается
+     *         после ожидания в очереди эндпоинта (EndpointBulkheads) и задержки без занятия потока сервера
+     */
+    public Object respond(StubRequest request, StubResponse defaults) {
+        boolean warmup = warmupStage.isWarmupRequest(request);
+        String statsKey = warmupStage.statsKey(request, warmup);
+        long startNanos = endpointStatsRegistry.requestStarted(statsKey);
+        StubResponse response;
+        long admittedCost;
+        try {
+            response = resolve(request, defaults);
+            admittedCost = admissionController.tryAcquire(response);
+        } catch (RuntimeException e) {
+            endpointStatsRegistry.requestFinished(statsKey, startNanos, null);
+            throw e;
+        }
+        if (admittedCost < 0) {
+            return reject(request, statsKey, startNanos);
+        }
+        return new Execution(request, response, warmup, statsKey, startNanos, admittedCost).submit();
+    }
+    
+    /**
+     * Возвращает ответ эндпоинта, тело запроса которого читается потоком (приемник загрузок).
+     * Лимиты и статистика захватываются до чтения тела и учитывают время загрузки;
+     * отклоненный запрос получает ответ без чтения тела. Чтение занимает поток сервера, поэтому
+     * место в лимите эндпоинта занимается без очереди. Ответ по умолчанию строится по результату чтения.
+     * @return ResponseEntity или DeferredResult, как в respond
+     */
+    public Object respondAfterBody(StubRequest request, BodyReader bodyReader) throws IOException {
+        boolean warmup = warmupStage.isWarmupRequest(request);
+        String statsKey = warmupStage.statsKey(request, warmup);
+        long startNanos = endpointStatsRegistry.requestStarted(statsKey);
+        long admittedCost = admissionController.tryAcquire();
+        if (admittedCost < 0) {
+            return reject(request, statsKey, startNanos);
+        }
+        if (!endpointBulkheads.tryAcquire(request.getEndpoint())) {
+            admissionController.release(admittedCost);
+            return reject(request, statsKey, startNanos);
+        }
+        StubResponse response;
+        try {
+            response = resolve(request, bodyReader.read());
+        } catch (IOException | RuntimeException e) {
+            endpointBulkheads.release(request.getEndpoint());
+            admissionController.release(admittedCost);
+            endpointStatsRegistry.requestFinished(statsKey, startNanos, null);
+            throw e;
+        }
+        return new Execution(request, response, warmup, statsKey, startNanos, admittedCost).run();
+    }
+    
+    /**
+     * Читает тело запроса и возвращает ответ по умолчанию.
+     */
+    @FunctionalInterface
+    public interface BodyReader {
+        StubResponse read() throws IOException;
+    }
+    
+    private ResponseEntity<?> reject(StubRequest request, String statsKey, long startNanos) {
+        StubResponse rejected = admissionController.rejectResponse();
+        endpointStatsRegistry.requestFinished(statsKey, startNanos, rejected);
+        return toResponseEntity(request, rejected);
+    }
+    
+    /**
+     * Выполнение принятого запроса в лимите эндпоинта: обратные вызовы, задержка и освобождение лимитов.
+     *
+     * Задержка выдерживается по таймеру планировщика, а ответ отдается через DeferredResult, поэтому поток
+     * сервера на время задержки и ожидания в очереди эндпоинта свободен. Без задержки, а также для задержек,
+     * которые DelayTimer выдерживает активным ожиданием (меньше миллисекунды или заданных в мкс/нс),
+     * ответ формируется в потоке запроса: асинхронное завершение добавило бы к ним десятки микросекунд.
+     */
+    private final class Execution {
+        private final StubRequest request;
+        private final StubResponse response;
+        private final boolean warmup;
+        private final String statsKey;
+        private final long startNanos;
+        private final long admittedCost;
+        private DeferredResult<ResponseEntity<?>> deferred;
+        
+        Execution(StubRequest request, StubResponse response, boolean warmup, String statsKey, long startNanos,
+                  long admittedCost) {
+            this.request = request;
+            this.response = response;
+            this.warmup = warmup;
+            this.statsKey = statsKey;
+            this.startNanos = startNanos;
+            this.admittedCost = admittedCost;
+        }
+        
+        /**
+         * Занимает место в лимите эндпоинта или очередь эндпоинта; при переполнении очереди запрос отклоняется.
+         */
+        Object submit() {
+            EndpointBulkheads.Admission admission = endpointBulkheads.acquire(request.getEndpoint(),
+                () -> delayScheduler.execute(this::start));
+            if (admission == EndpointBulkheads.Admission.REJECTED) {
+                admissionController.release(admittedCost);
+                return reject(request, statsKey, startNanos);
+            }
+            return admission == EndpointBulkheads.Admission.ACQUIRED ? run() : deferred();
+        }
+        
+        /**
+         * Выполняет запрос, получивший место, в потоке запроса.
+         */
+        Object run() {
+            long delayNanos = delayNanos();
+            if (delayNanos > 0 && !delayTimer.isSpinDelay(delayNanos, response.isPreciseDelay())) {
+                start();
+                return deferred();
+            }
+            try {
+                callbackDispatcher.onResponse(request, response);
+                ResponseEntity<?> entity = toResponseEntity(request, response);
+                sleep(request.getEndpoint(), response, delayNanos);
+                return entity;
+            } finally {
+                finish();
+            }
+        }
+        
+        /**
+         * DeferredResult ответа; создается при первом обращении из потока запроса или планировщика,
+         * которое для запроса из очереди может произойти раньше возврата из submit.
+         */
+        private synchronized DeferredResult<ResponseEntity<?>> deferred() {
+            if (deferred == null) {
+                deferred = new DeferredResult<>(NO_TIMEOUT);
+            }
+            return deferred;
+        }
+        
+        /**
+         * Выполняет запрос, получивший место, с ответом через DeferredResult.
+         */
+        private void start() {
+            long delayNanos = delayNanos();
+            try {
+                callbackDispatcher.onResponse(request, response);
+                if (delayNanos > 0) {
+                    long scheduledNanos = System.nanoTime();
+                    delayScheduler.schedule(() -> {
+                        recordDelay(request.getEndpoint(), response.getStatus(), delayNanos, scheduledNanos);
+                        complete();
+                    }, delayNanos, TimeUnit.NANOSECONDS);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                deferred().setErrorResult(e);
+                finish();
+                return;
+            }
+            complete();
+        }
+        
+        private void complete() {
+            try {
+                deferred().setResult(toResponseEntity(request, response));
+            } catch (RuntimeException e) {
+                deferred().setErrorResult(e);
+            } finally {
+                finish();
+            }
+        }
+        
+        /**
+         * Запрос прогрева (WarmupStage) отвечает без задержки.
+         */
+        private long delayNanos() {
+            return warmup ? 0 : response.getDelayNanos();
+        }
+        
+        private void finish() {
+            // Освобожденное место может сразу перейти запросу из очереди эндпоинта
+            endpointBulkheads.release(request.getEndpoint());
+            admissionController.release(admittedCost);
+            endpointStatsRegistry.requestFinished(statsKey, startNanos, response);
+        }
+    }
+    
+    private ResponseEntity<?> toResponseEntity(StubRequest request, StubResponse response) {
+        if (compressedBodyCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            byte[] gzipBody = compressedBodyCache.gzipBody(request.getEndpoint(), response.getBody());
+            if (gzipBody != null) {
+                return ResponseEntity.status(response.getStatus())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .body(gzipBody);
+            }
+        }
+        return ResponseEntity.status(response.getStatus())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .body(response.getBody());
+    }
+    
+    private void sleep(String endpoint, StubResponse response, long delayNanos) {
+        if (delayNanos <= 0) {
+            return;
+        }
+        ResponseDelayEvent event = new ResponseDelayEvent();
+        event.begin();
+        long start = System.nanoTime();
+        delayTimer.sleepNanos(delayNanos, response.isPreciseDelay());
+        event.end();
+        if (event.shouldCommit()) {
+            long actual = System.nanoTime() - start;
+            event.endpoint = endpoint;
+            event.status = response.getStatus();
+            event.configuredDelay = delayNanos;
+            event.actualDelay = actual;
+            event.skew = actual - delayNanos;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Записывает событие JFR о задержке, выдержанной планировщиком; время считается от постановки в планировщик.
+     */
+    private void recordDelay(String endpoint, int status, long delayNanos, long scheduledNanos) {
+        ResponseDelayEvent event = new ResponseDelayEvent();
+        if (event.isEnabled()) {
+            long actual = System.nanoTime() - scheduledNanos;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.configuredDelay = delayNanos;
+            event.actualDelay = actual;
+            event.skew = actual - delayNanos;
+            event.commit();
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        delayScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.mock.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ответ эндпоинта заглушки до применения задержки: HTTP статус, задержка и тело.
+ * Сервисы формируют ответ по умолчанию из своих параметров,
+ * а правила из MockController могут заменить статус, задержку или поля тела.
+ * Задержка хранится в наносекундах, чтобы поддерживать задержки меньше миллисекунды.
+ * Задержка, заданная в микросекундах или наносекундах, помечается как точная (isPreciseDelay):
+ * только такие задержки DelayTimer выдерживает с активным ожиданием.
+ */
+public class StubResponse {
+    
+    private final int status;
+    private final long delayNanos;
+    private final boolean preciseDelay;
+    private final Map<String, Object> body;
+    
+    /**
+     * @param delayMs задержка в миллисекундах
+     */
+    public StubResponse(int status, long delayMs, Map<String, Object> body) {
+        this(status, body, TimeUnit.MILLISECONDS.toNanos(delayMs), false);
+    }
+    
+    private StubResponse(int status, Map<String, Object> body, long delayNanos, boolean preciseDelay) {
+        this.status = status;
+        this.delayNanos = delayNanos;
+        this.preciseDelay = preciseDelay;
+        this.body = body;
+    }
+    
+    /**
+     * Создает ответ с задержкой в произвольной единице (например, для полей delay*Us).
+     */
+    public static StubResponse withDelay(int status, long delay, TimeUnit unit, Map<String, Object> body) {
+        return new StubResponse(status, body, unit.toNanos(delay), isFinerThanMillis(unit));
+    }
+    
+    private static boolean isFinerThanMillis(TimeUnit unit) {
+        return unit == TimeUnit.MICROSECONDS || unit == TimeUnit.NANOSECONDS;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public long getDelayMs() {
+        return TimeUnit.NANOSECONDS.toMillis(delayNanos);
+    }
+    
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+    
+    public boolean isPreciseDelay() {
+        return preciseDelay;
+    }
+    
+    public Map<String, Object> getBody() {
+        return body;
+    }
+    
+    public StubResponse withStatus(int status) {
+        return new StubResponse(status, body, delayNanos, preciseDelay);
+    }
+    
+    public StubResponse withDelayMs(long delayMs) {
+        return new StubResponse(status, body, TimeUnit.MILLISECONDS.toNanos(delayMs), false);
+    }
+    
+    /**
+     * Задержка, не кратная миллисекунде (например, "250us" или "1.5ms" в правиле), считается точной.
+     */
+    public StubResponse withDelayNanos(long delayNanos) {
+        return withDelayNanos(delayNanos, delayNanos % TimeUnit.MILLISECONDS.toNanos(1) != 0);
+    }
+    
+    public StubResponse withDelayNanos(long delayNanos, boolean preciseDelay) {
+        return new StubResponse(status, body, delayNanos, preciseDelay);
+    }
+    
+    /**
+     * Возвращает копию ответа, в теле которого поля заменены (или дополнены) переданными.
+     */
+    public StubResponse withBodyFields(Map<String, Object> fields) {
+        Map<String, Object> merged = body != null ? new HashMap<>(body) : new HashMap<>();
+        merged.putAll(fields);
+        return new StubResponse(status, merged, delayNanos, preciseDelay);
+    }
+}
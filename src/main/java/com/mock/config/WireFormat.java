@@ -0,0 +1,156 @@
+package com.mock.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Формат обмена с MockController: json (по умолчанию), smile или cbor (mock-controller.wire-format).
+ *
+ * Бинарный формат согласуется через Accept: запросы к MockController принимают выбранный формат
+ * и JSON. Тела запросов (checkUpdate) отправляются в бинарном формате только после того,
+ * как MockController ответил в нем, поэтому MockController без поддержки формата работает по JSON.
+ * Ответ в JSON или 415 Unsupported Media Type (например, после обновления MockController)
+ * сбрасывает согласование, и запросы снова отправляются в JSON.
+ */
+@Component
+public class WireFormat {
+    
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    
+    @Autowired
+    private MockControllerConfig mockControllerConfig;
+    
+    private final ObjectMapper jsonMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    
+    private volatile boolean negotiated = false;
+    
+    /**
+     * Бинарный формат из настроек или null для json.
+     */
+    private MediaType binaryType() {
+        String format = mockControllerConfig.getWireFormat();
+        if ("smile".equalsIgnoreCase(format)) {
+            return APPLICATION_SMILE;
+        }
+        if ("cbor".equalsIgnoreCase(format)) {
+            return MediaType.APPLICATION_CBOR;
+        }
+        return null;
+    }
+    
+    /**
+     * Значение Accept для запросов к MockController: бинарный формат (если выбран) и JSON.
+     */
+    public List<MediaType> acceptTypes() {
+        MediaType binary = binaryType();
+        return binary != null ? List.of(binary, MediaType.APPLICATION_JSON) : List.of(MediaType.APPLICATION_JSON);
+    }
+    
+    /**
+     * Content-Type тела запроса: бинарный формат, если MockController уже ответил в нем.
+     */
+    public MediaType requestContentType() {
+        MediaType binary = binaryType();
+        return binary != null && negotiated ? binary : MediaType.APPLICATION_JSON;
+    }
+    
+    /**
+     * Запоминает, поддерживает ли MockController выбранный бинарный формат: ответ в нем включает
+     * бинарные тела запросов, ответ в JSON возвращает запросы к JSON.
+     */
+    public void onResponse(MediaType contentType) {
+        MediaType binary = binaryType();
+        if (binary == null || contentType == null) {
+            return;
+        }
+        if (binary.isCompatibleWith(contentType)) {
+            negotiated = true;
+        } else if (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            negotiated = false;
+        }
+    }
+    
+    /**
+     * MockController отклонил тело запроса (415): следующие запросы отправляются в JSON.
+     */
+    public void onUnsupportedMediaType() {
+        negotiated = false;
+    }
+    
+    /**
+     * Конвертеры RestTemplate для запросов к MockController: byte[], строки, JSON и выбранный бинарный формат.
+     * RestTemplate по умолчанию создает конвертеры всех форматов из classpath (в том числе мапперы Smile и CBOR),
+     * поэтому RestTemplate создается с этим списком.
+     */
+    public List<HttpMessageConverter<?>> messageConverters() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new StringHttpMessageConverter());
+        converters.add(new MappingJackson2HttpMessageConverter(jsonMapper));
+        MediaType binary = binaryType();
+        if (APPLICATION_SMILE.equals(binary)) {
+            converters.add(new MappingJackson2SmileHttpMessageConverter(BinaryMappers.SMILE));
+        } else if (MediaType.APPLICATION_CBOR.equals(binary)) {
+            converters.add(new MappingJackson2CborHttpMessageConverter(BinaryMappers.CBOR));
+        }
+        return converters;
+    }
+    
+    /**
+     * Читает тело ответа в формате его Content-Type (JSON, если тип не бинарный).
+     */
+    public <T> T read(InputStream content, MediaType contentType, Class<T> type) throws IOException {
+        return mapperFor(contentType).readValue(content, type);
+    }
+    
+    private ObjectMapper mapperFor(MediaType contentType) {
+        if (contentType != null) {
+            if (APPLICATION_SMILE.isCompatibleWith(contentType)) {
+                return BinaryMappers.SMILE;
+            }
+            if (MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)) {
+                return BinaryMappers.CBOR;
+            }
+        }
+        return jsonMapper;
+    }
+    
+    /**
+     * Возвращает выбранный формат и результат согласования.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("wireFormat", binaryType() != null ? mockControllerConfig.getWireFormat().toLowerCase() : "json");
+        status.put("wireFormatNegotiated", negotiated);
+        return status;
+    }
+    
+    /**
+     * Мапперы бинарных форматов; класс загружается, только если бинарный формат выбран в настройках.
+     */
+    private static final class BinaryMappers {
+        static final ObjectMapper SMILE = new SmileMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        static final ObjectMapper CBOR = new CBORMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+}
@@ -0,0 +1,175 @@
+package com.mock.config.admission;
+
+import com.mock.config.StubResponse;
+import com.mock.config.stats.StatsContributor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограничение количества одновременно обрабатываемых запросов и оценки занятой ими памяти.
+ *
+ * Запрос с задержкой держит поток, буферы и тело ответа до конца ожидания. Чтобы при длинных
+ * задержках и высокой нагрузке заглушка деградировала предсказуемо, а не падала по OOM,
+ * запрос сверх лимита сразу получает ответ mock-controller.admission.reject-status.
+ *
+ * Стоимость запроса оценивается как request-cost-kb плюс оценка размера тела ответа.
+ * Лимит 0 означает отсутствие ограничения. Принятый запрос затем занимает место в лимите эндпоинта
+ * (EndpointBulkheads) или ждет его в очереди эндпоинта, продолжая учитываться в общих лимитах.
+ */
+@Component
+public class AdmissionController implements StatsContributor {
+    
+    /**
+     * Оценка накладных расходов на одну запись тела ответа (узел HashMap, ключ, обертки).
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    
+    @Autowired
+    private EndpointBulkheads endpointBulkheads;
+    
+    @Value("${mock-controller.admission.max-in-flight:0}")
+    private int maxInFlight;
+    
+    @Value("${mock-controller.admission.memory-budget-mb:0}")
+    private long memoryBudgetMb;
+    
+    @Value("${mock-controller.admission.request-cost-kb:64}")
+    private long requestCostKb;
+    
+    @Value("${mock-controller.admission.reject-status:503}")
+    private int rejectStatus;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final LongAdder admittedCount = new LongAdder();
+    private final LongAdder rejectedByInFlightCount = new LongAdder();
+    private final LongAdder rejectedByMemoryCount = new LongAdder();
+    
+    /**
+     * Пытается принять запрос с ответом response.
+     * @return оценка стоимости запроса в байтах для release или -1, если запрос отклонен
+     */
+    public long tryAcquire(StubResponse response) {
+        return tryAcquire(estimateCost(response));
+    }
+    
+    /**
+     * Пытается принять запрос, ответ которого еще не известен (например, до чтения загружаемого тела):
+     * стоимость - только request-cost-kb.
+     * @return оценка стоимости запроса в байтах для release или -1, если запрос отклонен
+     */
+    public long tryAcquire() {
+        return tryAcquire(requestCostKb * 1024);
+    }
+    
+    private long tryAcquire(long cost) {
+        if (maxInFlight > 0) {
+            int current;
+            do {
+                current = inFlight.get();
+                if (current >= maxInFlight) {
+                    rejectedByInFlightCount.increment();
+                    return -1;
+                }
+            } while (!inFlight.compareAndSet(current, current + 1));
+        } else {
+            inFlight.incrementAndGet();
+        }
+        
+        long budget = memoryBudgetMb * 1024 * 1024;
+        if (budget > 0) {
+            long current;
+            do {
+                current = reservedBytes.get();
+                if (current + cost > budget) {
+                    inFlight.decrementAndGet();
+                    rejectedByMemoryCount.increment();
+                    return -1;
+                }
+            } while (!reservedBytes.compareAndSet(current, current + cost));
+        } else {
+            reservedBytes.addAndGet(cost);
+        }
+        
+        admittedCount.increment();
+        return cost;
+    }
+    
+    /**
+     * Освобождает ресурсы принятого запроса.
+     */
+    public void release(long cost) {
+        inFlight.decrementAndGet();
+        reservedBytes.addAndGet(-cost);
+    }
+    
+    /**
+     * Ответ на отклоненный запрос: без задержки, со статусом mock-controller.admission.reject-status.
+     */
+    public StubResponse rejectResponse() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "Stub is overloaded, request rejected by admission control");
+        return new StubResponse(rejectStatus, 0, body);
+    }
+    
+    private long estimateCost(StubResponse response) {
+        long cost = requestCostKb * 1024;
+        Map<String, Object> body = response.getBody();
+        if (body != null) {
+            cost += estimateSize(body);
+        }
+        return cost;
+    }
+    
+    private long estimateSize(Object value) {
+        if (value instanceof CharSequence text) {
+            return 40 + 2L * text.length();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += ENTRY_OVERHEAD_BYTES + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 48;
+            for (Object element : collection) {
+                size += 8 + estimateSize(element);
+            }
+            return size;
+        }
+        return 24;
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "admission";
+    }
+    
+    /**
+     * Возвращает лимиты, текущую загрузку, счетчики отклоненных запросов и состояние лимитов эндпоинтов.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("maxInFlight", maxInFlight);
+        status.put("memoryBudgetMb", memoryBudgetMb);
+        status.put("inFlight", inFlight.get());
+        status.put("reservedKb", reservedBytes.get() / 1024);
+        status.put("admittedCount", admittedCount.sum());
+        status.put("rejectedByInFlightCount", rejectedByInFlightCount.sum());
+        status.put("rejectedByMemoryCount", rejectedByMemoryCount.sum());
+        status.put("rejectedByBulkheadCount", endpointBulkheads.getRejectedCount());
+        status.put("bulkheads", endpointBulkheads.getStatus());
+        return status;
+    }
+}
@@ -0,0 +1,303 @@
+package com.mock.config.admission;
+
+import com.mock.config.ConfigApplyListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Лимиты выполнения запросов по эндпоинтам (bulkhead), полученные из MockController в секции "bulkheads".
+ *
+ * Формат секции:
+ * <pre>
+ * "bulkheads": {
+ *   "default": 50,
+ *   "userLogin": {"maxConcurrent": 10, "maxQueued": 200}
+ * }
+ * </pre>
+ * maxConcurrent - сколько запросов эндпоинта одновременно выполняются (выдерживают задержку),
+ * maxQueued - сколько запросов ждут освобождения места в очереди эндпоинта; число вместо объекта
+ * задает maxConcurrent с очередью mock-controller.bulkhead.default-max-queued. Запрос отклоняется
+ * (см. AdmissionController.rejectResponse) только при переполнении очереди. Ожидающий запрос не занимает
+ * поток сервера: место передается ему при завершении одного из выполняющихся запросов.
+ * maxConcurrent 0 означает отсутствие ограничения. Без секции используется mock-controller.bulkhead.default-max-concurrent.
+ */
+@Component
+public class EndpointBulkheads implements ConfigApplyListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EndpointBulkheads.class);
+    
+    public static final String CONFIG_KEY = "bulkheads";
+    public static final String DEFAULT_KEY = "default";
+    
+    /**
+     * Результат попытки занять место в лимите эндпоинта.
+     */
+    public enum Admission {
+        /** Место занято, запрос выполняется сразу. */
+        ACQUIRED,
+        /** Запрос ждет в очереди эндпоинта, место передается ему через onSlot. */
+        QUEUED,
+        /** Очередь эндпоинта переполнена. */
+        REJECTED
+    }
+    
+    @Value("${mock-controller.bulkhead.default-max-concurrent:0}")
+    private int defaultMaxConcurrent;
+    
+    @Value("${mock-controller.bulkhead.default-max-queued:100}")
+    private int defaultMaxQueued;
+    
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    
+    private volatile Map<String, Limit> limits = Map.of();
+    private volatile Limit configuredDefault;
+    
+    /**
+     * Занимает место в лимите эндпоинта без ожидания в очереди
+     * (для запросов, которые занимают поток сервера, например, чтением загружаемого тела).
+     * @return false, если свободного места нет
+     */
+    public boolean tryAcquire(String endpoint) {
+        Bulkhead bulkhead = bulkheadFor(endpoint);
+        if (bulkhead.tryAcquire()) {
+            return true;
+        }
+        bulkhead.rejectedCount.increment();
+        return false;
+    }
+    
+    /**
+     * Занимает место в лимите эндпоинта или ставит запрос в очередь эндпоинта.
+     * Для QUEUED onSlot вызывается, когда запрос получил место, в потоке, освободившем место
+     * (или в текущем потоке, если место освободилось сразу), поэтому onSlot должен быть коротким.
+     */
+    public Admission acquire(String endpoint, Runnable onSlot) {
+        return bulkheadFor(endpoint).acquire(onSlot);
+    }
+    
+    /**
+     * Освобождает место; если в очереди эндпоинта есть запросы, место передается первому из них.
+     */
+    public void release(String endpoint) {
+        bulkheadFor(endpoint).release();
+    }
+    
+    /**
+     * Общее количество запросов, отклоненных лимитами эндпоинтов.
+     */
+    public long getRejectedCount() {
+        long rejected = 0;
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            rejected += bulkhead.rejectedCount.sum();
+        }
+        return rejected;
+    }
+    
+    private Bulkhead bulkheadFor(String endpoint) {
+        Bulkhead bulkhead = bulkheads.get(endpoint);
+        return bulkhead != null ? bulkhead : bulkheads.computeIfAbsent(endpoint, name -> new Bulkhead(limitFor(name)));
+    }
+    
+    private Limit limitFor(String endpoint) {
+        Limit limit = limits.get(endpoint);
+        if (limit != null) {
+            return limit;
+        }
+        return configuredDefault != null ? configuredDefault : new Limit(defaultMaxConcurrent, defaultMaxQueued);
+    }
+    
+    /**
+     * Обновляет лимиты. Запросы, уже занявшие место или ожидающие в очереди, продолжают учитываться в новом лимите;
+     * при увеличении лимита ожидающие запросы получают освободившиеся места сразу.
+     */
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        Object section = config.get(CONFIG_KEY);
+        Map<String, Limit> parsed = new HashMap<>();
+        Limit parsedDefault = null;
+        if (section instanceof Map<?, ?> limitsByEndpoint) {
+            for (Map.Entry<?, ?> entry : limitsByEndpoint.entrySet()) {
+                String endpoint = String.valueOf(entry.getKey());
+                try {
+                    Limit limit = parseLimit(entry.getValue());
+                    if (DEFAULT_KEY.equals(endpoint)) {
+                        parsedDefault = limit;
+                    } else {
+                        parsed.put(endpoint, limit);
+                    }
+                } catch (NumberFormatException e) {
+                    logger.warn("Skipping invalid bulkhead limit for {}: {}", endpoint, entry.getValue());
+                }
+            }
+        } else if (section != null) {
+            logger.warn("Section '{}' must be an object keyed by endpoint, got: {}", CONFIG_KEY, section);
+        }
+        
+        limits = parsed;
+        configuredDefault = parsedDefault;
+        for (Map.Entry<String, Bulkhead> entry : bulkheads.entrySet()) {
+            Limit limit = limitFor(entry.getKey());
+            entry.getValue().maxConcurrent = limit.maxConcurrent;
+            entry.getValue().maxQueued = limit.maxQueued;
+            entry.getValue().drain();
+        }
+        if (!parsed.isEmpty() || parsedDefault != null) {
+            logger.info("Applied bulkhead limits {} (default: {}), version: {}", parsed, limitFor(DEFAULT_KEY), version);
+        }
+    }
+    
+    private Limit parseLimit(Object value) {
+        int maxConcurrent;
+        int maxQueued = defaultMaxQueued;
+        if (value instanceof Map<?, ?> spec) {
+            maxConcurrent = parseCount(spec.get("maxConcurrent"));
+            if (spec.get("maxQueued") != null) {
+                maxQueued = parseCount(spec.get("maxQueued"));
+            }
+        } else {
+            maxConcurrent = parseCount(value);
+        }
+        return new Limit(maxConcurrent, maxQueued);
+    }
+    
+    private int parseCount(Object value) {
+        int count = Integer.parseInt(String.valueOf(value).trim());
+        if (count < 0) {
+            throw new NumberFormatException("negative limit");
+        }
+        return count;
+    }
+    
+    /**
+     * Возвращает лимиты, количество выполняющихся и ожидающих запросов и счетчики по эндпоинтам.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new TreeMap<>();
+        for (Map.Entry<String, Bulkhead> entry : bulkheads.entrySet()) {
+            Bulkhead bulkhead = entry.getValue();
+            Map<String, Object> endpointStatus = new HashMap<>();
+            endpointStatus.put("limit", bulkhead.maxConcurrent);
+            endpointStatus.put("maxQueued", bulkhead.maxQueued);
+            endpointStatus.put("active", bulkhead.active.get());
+            endpointStatus.put("queued", bulkhead.waiting);
+            endpointStatus.put("queuedCount", bulkhead.queuedCount.sum());
+            endpointStatus.put("rejectedCount", bulkhead.rejectedCount.sum());
+            status.put(entry.getKey(), endpointStatus);
+        }
+        return status;
+    }
+    
+    /**
+     * Лимит эндпоинта.
+     */
+    private static final class Limit {
+        final int maxConcurrent;
+        final int maxQueued;
+        
+        Limit(int maxConcurrent, int maxQueued) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+        }
+        
+        @Override
+        public String toString() {
+            return maxConcurrent + "/" + maxQueued;
+        }
+    }
+    
+    /**
+     * Счетчик занятых мест и очередь одного эндпоинта.
+     * Место занимается без блокировки; очередь защищена монитором Bulkhead. После постановки в очередь
+     * и после освобождения места вызывается drain, поэтому освободившееся место не теряется.
+     */
+    private static final class Bulkhead {
+        final AtomicInteger active = new AtomicInteger();
+        final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        final LongAdder queuedCount = new LongAdder();
+        final LongAdder rejectedCount = new LongAdder();
+        volatile int waiting;
+        volatile int maxConcurrent;
+        volatile int maxQueued;
+        
+        Bulkhead(Limit limit) {
+            this.maxConcurrent = limit.maxConcurrent;
+            this.maxQueued = limit.maxQueued;
+        }
+        
+        /**
+         * Занимает свободное место, если очередь пуста (запрос не обгоняет ожидающих).
+         */
+        boolean tryAcquire() {
+            return waiting == 0 && tryIncrement();
+        }
+        
+        private boolean tryIncrement() {
+            int current;
+            do {
+                current = active.get();
+                int max = maxConcurrent;
+                if (max > 0 && current >= max) {
+                    return false;
+                }
+            } while (!active.compareAndSet(current, current + 1));
+            return true;
+        }
+        
+        Admission acquire(Runnable onSlot) {
+            if (tryAcquire()) {
+                return Admission.ACQUIRED;
+            }
+            synchronized (this) {
+                if (queue.size() >= maxQueued) {
+                    rejectedCount.increment();
+                    return Admission.REJECTED;
+                }
+                queue.add(onSlot);
+                waiting = queue.size();
+            }
+            queuedCount.increment();
+            drain();
+            return Admission.QUEUED;
+        }
+        
+        void release() {
+            active.decrementAndGet();
+            if (waiting > 0) {
+                drain();
+            }
+        }
+        
+        /**
+         * Передает свободные места ожидающим запросам.
+         */
+        void drain() {
+            while (true) {
+                Runnable next;
+                synchronized (this) {
+                    if (queue.isEmpty() || !tryIncrement()) {
+                        return;
+                    }
+                    next = queue.poll();
+                    waiting = queue.size();
+                }
+                try {
+                    next.run();
+                } catch (RuntimeException e) {
+                    // Запрос не смог начать выполнение: место переходит следующему
+                    logger.warn("Cannot start queued request: {}", e.getMessage());
+                    active.decrementAndGet();
+                }
+            }
+        }
+    }
+}
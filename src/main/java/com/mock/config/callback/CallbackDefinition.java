@@ -0,0 +1,120 @@
+package com.mock.config.callback;
+
+import com.mock.config.StubRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Описание обратного вызова эндпоинта из секции "callbacks".
+ *
+ * В url и строковых значениях body подстановки {path.id}, {query.x}, {header.X-Id}, {body.user.login}
+ * заменяются значениями запроса, вызвавшего обратный вызов (см. StubRequest.lookup);
+ * отсутствующее значение заменяется пустой строкой.
+ */
+final class CallbackDefinition {
+    
+    final String endpoint;
+    final String url;
+    final HttpMethod method;
+    final Map<String, Object> body;
+    final long delayNanos;
+    final int maxAttempts;
+    final long backoffNanos;
+    final int batchSize;
+    final long batchWindowNanos;
+    
+    @SuppressWarnings("unchecked")
+    CallbackDefinition(String endpoint, Map<?, ?> spec) {
+        this.endpoint = endpoint;
+        Object urlValue = spec.get("url");
+        if (urlValue == null || String.valueOf(urlValue).isBlank()) {
+            throw new IllegalArgumentException("'url' is required");
+        }
+        this.url = String.valueOf(urlValue).trim();
+        this.method = HttpMethod.valueOf(String.valueOf(spec.get("method") != null ? spec.get("method") : "POST").trim().toUpperCase());
+        if (spec.get("body") != null && !(spec.get("body") instanceof Map<?, ?>)) {
+            throw new IllegalArgumentException("'body' must be an object");
+        }
+        this.body = spec.get("body") != null ? (Map<String, Object>) spec.get("body") : Map.of("endpoint", endpoint);
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(number(spec, "delayMs", 0));
+        this.maxAttempts = (int) number(spec, "maxAttempts", 3);
+        this.backoffNanos = TimeUnit.MILLISECONDS.toNanos(number(spec, "backoffMs", 200));
+        this.batchSize = (int) number(spec, "batchSize", 1);
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(number(spec, "batchWindowMs", 50));
+        if (delayNanos < 0 || maxAttempts <= 0 || backoffNanos < 0 || batchSize <= 0 || batchWindowNanos < 0) {
+            throw new IllegalArgumentException("maxAttempts and batchSize must be positive, delays non-negative");
+        }
+    }
+    
+    private static long number(Map<?, ?> spec, String key, long defaultValue) {
+        Object value = spec.get(key);
+        return value != null ? Long.parseLong(String.valueOf(value).trim()) : defaultValue;
+    }
+    
+    String renderUrl(StubRequest request) {
+        return render(url, request, true);
+    }
+    
+    Map<String, Object> renderBody(StubRequest request) {
+        return renderMap(body, request);
+    }
+    
+    private static Map<String, Object> renderMap(Map<String, Object> template, StubRequest request) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : template.entrySet()) {
+            result.put(entry.getKey(), renderValue(entry.getValue(), request));
+        }
+        return result;
+    }
+    
+    /**
+     * Подставляет значения в строки, в том числе внутри вложенных объектов и массивов.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object renderValue(Object value, StubRequest request) {
+        if (value instanceof String text) {
+            return render(text, request, false);
+        }
+        if (value instanceof Map<?, ?> nested) {
+            return renderMap((Map<String, Object>) nested, request);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> result = new ArrayList<>(list.size());
+            for (Object item : list) {
+                result.add(renderValue(item, request));
+            }
+            return result;
+        }
+        return value;
+    }
+    
+    private static String render(String template, StubRequest request, boolean encode) {
+        int open = template.indexOf('{');
+        if (open < 0) {
+            return template;
+        }
+        StringBuilder result = new StringBuilder(template.length() + 16);
+        int position = 0;
+        while (open >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                break;
+            }
+            result.append(template, position, open);
+            String value = request.lookup(template.substring(open + 1, close));
+            if (value != null) {
+                result.append(encode ? UriUtils.encode(value, StandardCharsets.UTF_8) : value);
+            }
+            position = close + 1;
+            open = template.indexOf('{', position);
+        }
+        return result.append(template, position, template.length()).toString();
+    }
+}
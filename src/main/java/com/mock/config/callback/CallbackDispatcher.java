@@ -0,0 +1,273 @@
+package com.mock.config.callback;
+
+import com.mock.config.ConfigApplyListener;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import com.mock.config.stats.StatsContributor;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Асинхронные обратные вызовы (webhook) эндпоинтов, полученные из MockController в секции "callbacks".
+ *
+ * Формат секции:
+ * <pre>
+ * "callbacks": {
+ *   "userLogin": {"url": "http://consumer:8080/hooks/login/{body.userId}", "delayMs": 500,
+ *                 "body": {"userId": "{body.userId}", "status": "CONFIRMED"},
+ *                 "maxAttempts": 3, "backoffMs": 200, "batchSize": 20, "batchWindowMs": 50}
+ * }
+ * </pre>
+ * После успешного (2xx) ответа эндпоинта обратный вызов планируется через задержку ответа плюс delayMs.
+ * Все состояние диспетчера (пакеты, очередь ожидания) изменяется только потоком планировщика,
+ * а HTTP-запросы выполняются неблокирующим WebClient на пуле соединений Reactor Netty,
+ * поэтому тысячи ожидающих вызовов не занимают потоков. При batchSize > 1 вызовы на один URL,
+ * наступившие в течение batchWindowMs, отправляются одним запросом с JSON-массивом тел.
+ * Неуспешный вызов повторяется до maxAttempts раз с экспоненциальной паузой от backoffMs.
+ */
+@Component
+public class CallbackDispatcher implements ConfigApplyListener, StatsContributor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CallbackDispatcher.class);
+    
+    public static final String CONFIG_KEY = "callbacks";
+    
+    @Value("${mock-controller.callbacks.max-concurrent:32}")
+    private int maxConcurrent;
+    
+    @Value("${mock-controller.callbacks.max-pending:100000}")
+    private int maxPending;
+    
+    @Value("${mock-controller.callbacks.timeout-seconds:10}")
+    private int timeoutSeconds;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "callback-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private volatile Map<String, CallbackDefinition> definitions = Map.of();
+    // Создаются при первом вызове, чтобы заглушка без обратных вызовов не загружала Reactor Netty
+    private volatile ConnectionProvider connections;
+    private WebClient webClient;
+    
+    // Изменяются только потоком планировщика
+    private final Map<String, Batch> openBatches = new HashMap<>();
+    private final ArrayDeque<Batch> waiting = new ArrayDeque<>();
+    private int inFlight;
+    
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    
+    /**
+     * WebClient на пуле соединений Reactor Netty. Вызывается только потоком планировщика.
+     */
+    private WebClient webClient() {
+        if (webClient == null) {
+            connections = ConnectionProvider.builder("mock-callbacks")
+                .maxConnections(maxConcurrent)
+                .pendingAcquireMaxCount(-1)
+                .build();
+            HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
+                .responseTimeout(Duration.ofSeconds(timeoutSeconds));
+            webClient = WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        }
+        return webClient;
+    }
+    
+    /**
+     * Планирует обратный вызов эндпоинта, если он настроен и ответ успешный.
+     */
+    public void onResponse(StubRequest request, StubResponse response) {
+        CallbackDefinition definition = definitions.get(request.getEndpoint());
+        if (definition == null || !isSuccess(request, response.getStatus())) {
+            return;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            droppedCount.increment();
+            return;
+        }
+        scheduledCount.increment();
+        String url = definition.renderUrl(request);
+        Map<String, Object> body = definition.renderBody(request);
+        scheduler.schedule(() -> due(definition, url, body),
+            response.getDelayNanos() + definition.delayNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private static boolean isSuccess(StubRequest request, int status) {
+        // 0 - статус OK эндпоинтов gRPC
+        return (status == 0 && request.isGrpc()) || (status >= 200 && status < 300);
+    }
+    
+    private void due(CallbackDefinition definition, String url, Map<String, Object> body) {
+        if (definition.batchSize <= 1) {
+            dispatch(new Batch(definition, url, body));
+            return;
+        }
+        String key = definition.endpoint + ' ' + url;
+        Batch batch = openBatches.get(key);
+        if (batch == null) {
+            batch = new Batch(definition, url, body);
+            openBatches.put(key, batch);
+            Batch opened = batch;
+            scheduler.schedule(() -> closeBatch(key, opened), definition.batchWindowNanos, TimeUnit.NANOSECONDS);
+        } else {
+            batch.bodies.add(body);
+        }
+        if (batch.bodies.size() >= definition.batchSize) {
+            closeBatch(key, batch);
+        }
+    }
+    
+    private void closeBatch(String key, Batch batch) {
+        if (openBatches.remove(key, batch)) {
+            dispatch(batch);
+        }
+    }
+    
+    private void dispatch(Batch batch) {
+        if (inFlight >= maxConcurrent) {
+            waiting.add(batch);
+            return;
+        }
+        inFlight++;
+        batch.attempts++;
+        requestCount.increment();
+        Object payload = batch.definition.batchSize > 1 ? batch.bodies : batch.bodies.get(0);
+        try {
+            webClient().method(batch.definition.method)
+                .uri(URI.create(batch.url))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .subscribe(
+                    entity -> scheduler.execute(() -> completed(batch, null)),
+                    error -> scheduler.execute(() -> completed(batch, error)));
+        } catch (RuntimeException e) {
+            // Например, URL после подстановки некорректен
+            completed(batch, e);
+        }
+    }
+    
+    private void completed(Batch batch, Throwable error) {
+        inFlight--;
+        if (error == null) {
+            deliveredCount.add(batch.bodies.size());
+            pending.addAndGet(-batch.bodies.size());
+        } else if (batch.attempts < batch.definition.maxAttempts) {
+            retryCount.increment();
+            long backoff = batch.definition.backoffNanos << Math.min(batch.attempts - 1, 16);
+            scheduler.schedule(() -> dispatch(batch), backoff, TimeUnit.NANOSECONDS);
+        } else {
+            failedCount.add(batch.bodies.size());
+            pending.addAndGet(-batch.bodies.size());
+            logger.warn("Callback {} {} failed after {} attempts: {}",
+                batch.definition.method, batch.url, batch.attempts, error.getMessage());
+        }
+        while (inFlight < maxConcurrent && !waiting.isEmpty()) {
+            dispatch(waiting.poll());
+        }
+    }
+    
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        Object section = config.get(CONFIG_KEY);
+        Map<String, CallbackDefinition> parsed = new HashMap<>();
+        if (section instanceof Map<?, ?> callbacksByEndpoint) {
+            for (Map.Entry<?, ?> entry : callbacksByEndpoint.entrySet()) {
+                String endpoint = String.valueOf(entry.getKey());
+                if (!(entry.getValue() instanceof Map<?, ?> spec)) {
+                    logger.warn("Skipping invalid callback for {}: expected object, got {}", endpoint, entry.getValue());
+                    continue;
+                }
+                try {
+                    parsed.put(endpoint, new CallbackDefinition(endpoint, spec));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Skipping invalid callback for {}: {}", endpoint, e.getMessage());
+                }
+            }
+        } else if (section != null) {
+            logger.warn("Section '{}' must be an object keyed by endpoint, got: {}", CONFIG_KEY, section);
+        }
+        definitions = parsed;
+        if (!parsed.isEmpty()) {
+            logger.info("Applied callbacks for {}, version: {}", parsed.keySet(), version);
+        }
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "callbacks";
+    }
+    
+    /**
+     * Возвращает количество ожидающих вызовов и счетчики отправки.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("pending", pending.get());
+        status.put("scheduledCount", scheduledCount.sum());
+        status.put("deliveredCount", deliveredCount.sum());
+        status.put("requestCount", requestCount.sum());
+        status.put("retryCount", retryCount.sum());
+        status.put("failedCount", failedCount.sum());
+        status.put("droppedCount", droppedCount.sum());
+        return status;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (connections != null) {
+            connections.dispose();
+        }
+    }
+    
+    /**
+     * Тела обратных вызовов, отправляемые одним запросом.
+     */
+    private static final class Batch {
+        final CallbackDefinition definition;
+        final String url;
+        final List<Map<String, Object>> bodies = new ArrayList<>();
+        int attempts;
+        
+        Batch(CallbackDefinition definition, String url, Map<String, Object> body) {
+            this.definition = definition;
+            this.url = url;
+            this.bodies.add(body);
+        }
+    }
+}
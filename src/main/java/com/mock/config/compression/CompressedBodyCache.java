@@ -0,0 +1,164 @@
+package com.mock.config.compression;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.config.ConfigApplyListener;
+import com.mock.config.stats.StatsContributor;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сжатые (gzip) тела ответов заглушки по умолчанию для текущей версии конфига.
+ *
+ * Тела, которые не зависят от запроса (StaticBodySource), сериализуются и сжимаются один раз
+ * при применении версии конфига; запрос с Accept-Encoding: gzip получает готовый массив байт,
+ * если его тело - тот же экземпляр, что тело по умолчанию эндпоинта (сервисы отдают один экземпляр,
+ * пока их поля не меняются, см. MockControllerClientBase.reuseBody). Тела, измененные сценариями,
+ * правилами и таймлайнами или зависящие от запроса, отдаются без сжатия и не хранятся.
+ * Тела меньше mock-controller.compression.min-size-bytes не сжимаются.
+ */
+@Component
+public class CompressedBodyCache implements ConfigApplyListener, StatsContributor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CompressedBodyCache.class);
+    
+    @Value("${mock-controller.compression.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${mock-controller.compression.min-size-bytes:1024}")
+    private int minSizeBytes;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ObjectProvider<StaticBodySource> staticBodySources;
+    
+    private volatile Map<String, CompressedBody> compressedBodies = Collections.emptyMap();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    
+    private volatile String version;
+    
+    /**
+     * Тело по умолчанию эндпоинта и его gzip (null, если тело не нужно сжимать).
+     */
+    private static final class CompressedBody {
+        final Map<String, Object> body;
+        final byte[] gzip;
+        
+        CompressedBody(Map<String, Object> body, byte[] gzip) {
+            this.body = body;
+            this.gzip = gzip;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        compressStaticBodies();
+    }
+    
+    /**
+     * true, если клиент принимает gzip (Accept-Encoding содержит gzip без q=0).
+     */
+    public boolean acceptsGzip(String acceptEncoding) {
+        if (!enabled || acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Возвращает тело в gzip или null, если тело не является телом по умолчанию эндпоинта
+     * или его не нужно сжимать. Тело сравнивается по ссылке, без обхода содержимого.
+     */
+    public byte[] gzipBody(String endpoint, Map<String, Object> body) {
+        CompressedBody compressed = compressedBodies.get(endpoint);
+        if (compressed == null || body == null || compressed.body != body) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return compressed.gzip;
+    }
+    
+    private void compressStaticBodies() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, CompressedBody> compressed = new HashMap<>();
+        staticBodySources.orderedStream().forEach(source -> {
+            for (Map.Entry<String, Map<String, Object>> entry : source.getStaticBodies().entrySet()) {
+                Map<String, Object> body = entry.getValue();
+                compressed.put(entry.getKey(), new CompressedBody(body, compress(body)));
+            }
+        });
+        compressedBodies = compressed;
+    }
+    
+    private byte[] compress(Map<String, Object> body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            if (json.length < minSizeBytes) {
+                return null;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return buffer.toByteArray();
+        } catch (JsonProcessingException e) {
+            logger.warn("Cannot serialize response body for compression: {}", e.getMessage());
+            return null;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Новая версия конфига может изменить тела ответов по умолчанию: они сжимаются заново.
+     */
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        compressStaticBodies();
+        this.version = version;
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "compression";
+    }
+    
+    /**
+     * Возвращает состояние кеша сжатых тел.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("version", version != null ? version : "None");
+        status.put("entries", compressedBodies.size());
+        status.put("hitCount", hitCount.sum());
+        status.put("missCount", missCount.sum());
+        return status;
+    }
+}
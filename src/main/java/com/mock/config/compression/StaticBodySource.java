@@ -0,0 +1,16 @@
+package com.mock.config.compression;
+
+import java.util.Map;
+
+/**
+ * Источник тел ответов по умолчанию, которые не зависят от запроса.
+ * CompressedBodyCache заранее сжимает эти тела при применении версии конфига.
+ */
+public interface StaticBodySource {
+    
+    /**
+     * Возвращает тела ответов по умолчанию: идентификатор эндпоинта -> тело.
+     * Эндпоинты, тело которых зависит от запроса, не включаются.
+     */
+    Map<String, Map<String, Object>> getStaticBodies();
+}
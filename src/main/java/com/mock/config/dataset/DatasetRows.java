@@ -0,0 +1,50 @@
+package com.mock.config.dataset;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+
+/**
+ * Страница строк синтетического набора как значение тела ответа.
+ *
+ * Строки не хранятся: Jackson вызывает serialize при записи ответа, и каждая строка
+ * генерируется и сразу пишется в JsonGenerator, поэтому память не зависит от размера страницы.
+ */
+public final class DatasetRows implements JsonSerializable {
+    
+    private final SyntheticDataset dataset;
+    private final long seed;
+    private final int ordersPerUser;
+    private final long offset;
+    private final long limit;
+    
+    public DatasetRows(SyntheticDataset dataset, long seed, int ordersPerUser, long offset, long limit) {
+        this.dataset = dataset;
+        this.seed = seed;
+        this.ordersPerUser = ordersPerUser;
+        this.offset = offset;
+        this.limit = limit;
+    }
+    
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartArray();
+        for (long index = offset; index < offset + limit; index++) {
+            dataset.writeRow(generator, seed, index, ordersPerUser);
+        }
+        generator.writeEndArray();
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, serializers);
+    }
+    
+    @Override
+    public String toString() {
+        return dataset + "[" + offset + ".." + (offset + limit) + ")";
+    }
+}
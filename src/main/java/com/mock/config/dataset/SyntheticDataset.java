@@ -0,0 +1,112 @@
+package com.mock.config.dataset;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Синтетические наборы данных, детерминированные от seed.
+ *
+ * Каждое поле строки вычисляется из (seed, номер строки, номер поля) хеш-функцией SplitMix64,
+ * поэтому любая страница генерируется без генерации предыдущих строк,
+ * а одинаковые seed и размеры дают одинаковые данные во всех экземплярах заглушки.
+ */
+public enum SyntheticDataset {
+    
+    USERS {
+        @Override
+        void writeRow(JsonGenerator generator, long seed, long index, int ordersPerUser) throws IOException {
+            String firstName = pick(FIRST_NAMES, seed, index, 1);
+            String lastName = pick(LAST_NAMES, seed, index, 2);
+            generator.writeStartObject();
+            generator.writeNumberField("id", index + 1);
+            generator.writeStringField("name", firstName + " " + lastName);
+            generator.writeStringField("email", firstName.toLowerCase() + "." + lastName.toLowerCase() + (index + 1) + "@example.com");
+            generator.writeNumberField("age", 18 + (int) bounded(seed, index, 3, 60));
+            generator.writeStringField("city", pick(CITIES, seed, index, 4));
+            generator.writeStringField("registeredAt", timestamp(seed, index, 5));
+            generator.writeNumberField("orders", ordersPerUser);
+            generator.writeEndObject();
+        }
+        
+        @Override
+        public long size(int users, int ordersPerUser) {
+            return Math.max(0, users);
+        }
+    },
+    
+    ORDERS {
+        @Override
+        void writeRow(JsonGenerator generator, long seed, long index, int ordersPerUser) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", index + 1);
+            generator.writeNumberField("userId", index / Math.max(1, ordersPerUser) + 1);
+            generator.writeFieldName("amount");
+            generator.writeNumber((100 + bounded(seed, index, 1, 10_000_000)) / 100.0);
+            generator.writeStringField("currency", pick(CURRENCIES, seed, index, 2));
+            generator.writeStringField("status", pick(ORDER_STATUSES, seed, index, 3));
+            generator.writeNumberField("items", 1 + bounded(seed, index, 4, 10));
+            generator.writeStringField("createdAt", timestamp(seed, index, 5));
+            generator.writeEndObject();
+        }
+        
+        @Override
+        public long size(int users, int ordersPerUser) {
+            return (long) Math.max(0, users) * Math.max(0, ordersPerUser);
+        }
+    };
+    
+    private static final String[] FIRST_NAMES = {
+        "Ivan", "Anna", "Petr", "Maria", "Alexey", "Olga", "Dmitry", "Elena", "Sergey", "Natalia", "Pavel", "Irina"
+    };
+    private static final String[] LAST_NAMES = {
+        "Ivanov", "Smirnov", "Kuznetsov", "Popov", "Vasiliev", "Petrov", "Sokolov", "Mikhailov", "Novikov", "Fedorov"
+    };
+    private static final String[] CITIES = {
+        "Moscow", "Saint Petersburg", "Novosibirsk", "Yekaterinburg", "Kazan", "Nizhny Novgorod", "Samara", "Omsk"
+    };
+    private static final String[] CURRENCIES = {"RUB", "RUB", "RUB", "USD", "EUR"};
+    private static final String[] ORDER_STATUSES = {"NEW", "PAID", "PAID", "SHIPPED", "DELIVERED", "DELIVERED", "CANCELLED"};
+    
+    /**
+     * 2020-01-01T00:00:00Z; даты строк распределены по пяти годам после нее.
+     */
+    private static final long EPOCH_SECONDS = 1_577_836_800L;
+    private static final long SPAN_SECONDS = 5L * 365 * 24 * 3600;
+    
+    /**
+     * Записывает строку с номером index.
+     */
+    abstract void writeRow(JsonGenerator generator, long seed, long index, int ordersPerUser) throws IOException;
+    
+    /**
+     * Количество строк набора при заданных размерах.
+     */
+    public abstract long size(int users, int ordersPerUser);
+    
+    public static SyntheticDataset fromName(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+    
+    private static String pick(String[] values, long seed, long index, int field) {
+        return values[(int) bounded(seed, index, field, values.length)];
+    }
+    
+    private static String timestamp(long seed, long index, int field) {
+        return Instant.ofEpochSecond(EPOCH_SECONDS + bounded(seed, index, field, SPAN_SECONDS)).toString();
+    }
+    
+    private static long bounded(long seed, long index, int field, long bound) {
+        return Math.floorMod(mix(seed * 0x9E3779B97F4A7C15L + index * 31 + field), bound);
+    }
+    
+    /**
+     * Финализатор SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
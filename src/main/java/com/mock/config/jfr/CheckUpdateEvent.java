@@ -0,0 +1,34 @@
+package com.mock.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Один запрос checkUpdate в MockController (включая загрузку и применение конфига, если она нужна).
+ */
+@Name("com.mock.CheckUpdate")
+@Label("Check Update")
+@Category({"Mock", "Config Sync"})
+@Description("checkUpdate request to MockController")
+@StackTrace(false)
+public class CheckUpdateEvent extends Event {
+    
+    @Label("Sent Version")
+    public String sentVersion;
+    
+    @Label("Current Version")
+    public String currentVersion;
+    
+    @Label("Need Update")
+    public boolean needUpdate;
+    
+    @Label("Success")
+    public boolean success;
+    
+    @Label("Error")
+    public String error;
+}
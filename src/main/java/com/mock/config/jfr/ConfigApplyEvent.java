@@ -0,0 +1,32 @@
+package com.mock.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Применение версии конфига к сервисам и слушателям (правила, сценарии, таймлайны и т.д.).
+ */
+@Name("com.mock.ConfigApply")
+@Label("Config Apply")
+@Category({"Mock", "Config Sync"})
+@Description("Config version applied to services and listeners")
+@StackTrace(false)
+public class ConfigApplyEvent extends Event {
+    
+    @Label("Version")
+    public String version;
+    
+    @Label("Previous Version")
+    public String previousVersion;
+    
+    @Label("Changed Keys")
+    @Description("Number of service fields whose value changed")
+    public int changedKeys;
+    
+    @Label("Changed Key Names")
+    public String changedKeyNames;
+}
@@ -0,0 +1,28 @@
+package com.mock.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Один healthcheck в MockController.
+ */
+@Name("com.mock.Healthcheck")
+@Label("Healthcheck")
+@Category({"Mock", "Config Sync"})
+@Description("Healthcheck request to MockController")
+@StackTrace(false)
+public class HealthcheckEvent extends Event {
+    
+    @Label("Status Code")
+    public int statusCode;
+    
+    @Label("Healthy")
+    public boolean healthy;
+    
+    @Label("Error")
+    public String error;
+}
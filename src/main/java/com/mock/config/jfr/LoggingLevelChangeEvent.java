@@ -0,0 +1,26 @@
+package com.mock.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Изменение уровня логирования (из application.yml или loggingLv конфига).
+ */
+@Name("com.mock.LoggingLevelChange")
+@Label("Logging Level Change")
+@Category({"Mock", "Config Sync"})
+@Description("Logging level applied to root and com.mock loggers")
+@StackTrace(false)
+public class LoggingLevelChangeEvent extends Event {
+    
+    @Label("Level")
+    public String level;
+    
+    @Label("Loggers")
+    @Description("Number of loggers the level was applied to")
+    public int loggers;
+}
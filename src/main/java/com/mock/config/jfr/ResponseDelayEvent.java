@@ -0,0 +1,40 @@
+package com.mock.config.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Задержка ответа эндпоинта: заданная задержка и фактическое время до пробуждения.
+ * Длительность события - фактическое ожидание.
+ */
+@Name("com.mock.ResponseDelay")
+@Label("Response Delay")
+@Category({"Mock", "Responses"})
+@Description("Configured vs actual wake-up of a delayed stub response")
+@StackTrace(false)
+public class ResponseDelayEvent extends Event {
+    
+    @Label("Endpoint")
+    public String endpoint;
+    
+    @Label("Status")
+    public int status;
+    
+    @Label("Configured Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    public long configuredDelay;
+    
+    @Label("Actual Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    public long actualDelay;
+    
+    @Label("Skew")
+    @Description("Actual minus configured delay")
+    @Timespan(Timespan.NANOSECONDS)
+    public long skew;
+}
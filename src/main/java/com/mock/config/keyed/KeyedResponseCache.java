@@ -0,0 +1,217 @@
+package com.mock.config.keyed;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mock.config.ConfigApplyListener;
+import com.mock.config.stats.StatsContributor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Кеш сгенерированных ответов по ключу (например, по id пользователя).
+ *
+ * Ответ для ключа генерируется один раз и возвращается без изменений при следующих вызовах,
+ * поэтому кеши потребителя можно проверять на стабильных данных. Размер ограничен
+ * mock-controller.keyed-cache.max-entries (вытеснение W-TinyLFU: учитываются и давность, и частота обращений),
+ * время жизни - ttl-seconds (0 - без ограничения). Новая версия конфига сбрасывает кеш,
+ * чтобы ответы строились по новым параметрам.
+ *
+ * При off-heap-mb > 0 ответы хранятся в Smile в кольцевом буфере вне кучи (OffHeapArena),
+ * а в куче остаются только ключи и ссылки. Когда место в буфере переиспользуется, ключи затертых
+ * ответов удаляются из кеша (offHeapOverwrittenCount), и следующее обращение к ним - обычный промах.
+ */
+@Component
+public class KeyedResponseCache implements ConfigApplyListener, StatsContributor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(KeyedResponseCache.class);
+    
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {};
+    
+    @Value("${mock-controller.keyed-cache.max-entries:100000}")
+    private long maxEntries;
+    
+    @Value("${mock-controller.keyed-cache.ttl-seconds:0}")
+    private long ttlSeconds;
+    
+    @Value("${mock-controller.keyed-cache.off-heap-mb:0}")
+    private int offHeapMb;
+    
+    private final LongAdder offHeapOverwrittenCount = new LongAdder();
+    
+    private final Queue<OffHeapRef> overwrittenRefs = new ConcurrentLinkedQueue<>();
+    
+    // Создаются при первом обращении, чтобы заглушка без эндпоинтов по ключу не загружала Caffeine;
+    // arena и smileMapper публикуются записью volatile поля cache
+    private volatile Cache<String, Object> cache;
+    private OffHeapArena<OffHeapRef> arena;
+    private ObjectMapper smileMapper;
+    
+    private Cache<String, Object> cache() {
+        Cache<String, Object> current = cache;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (cache == null) {
+                Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .maximumSize(maxEntries)
+                    .recordStats();
+                if (ttlSeconds > 0) {
+                    builder.expireAfterWrite(Duration.ofSeconds(ttlSeconds));
+                }
+                if (offHeapMb > 0) {
+                    arena = new OffHeapArena<>((int) Math.min(Integer.MAX_VALUE, offHeapMb * 1024L * 1024L));
+                    smileMapper = new ObjectMapper(new SmileFactory());
+                }
+                cache = builder.build();
+            }
+            return cache;
+        }
+    }
+    
+    /**
+     * Возвращает ответ для ключа эндпоинта, генерируя его при первом обращении.
+     * Возвращаемое тело нельзя изменять.
+     */
+    public Map<String, Object> get(String endpoint, String key, Function<String, Map<String, Object>> generator) {
+        String cacheKey = endpoint + ':' + key;
+        Cache<String, Object> cache = cache();
+        if (arena == null) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> body = (Map<String, Object>) cache.get(cacheKey,
+                ignored -> Collections.unmodifiableMap(generator.apply(key)));
+            return body;
+        }
+        
+        while (true) {
+            Object cached = cache.get(cacheKey, ignored -> store(cacheKey, generator.apply(key)));
+            removeOverwritten();
+            Map<String, Object> body = load(cached);
+            if (body != null) {
+                return body;
+            }
+            // Запись затерта между получением ссылки и чтением: ключ удаляется и ответ генерируется как при промахе
+            cache.asMap().remove(cacheKey, cached);
+        }
+    }
+    
+    /**
+     * Сохраняет тело в буфер вне кучи; тело, которое не удалось сохранить, остается в куче.
+     * Вызывается внутри вычисления значения Caffeine, поэтому затертые ссылки только ставятся в очередь.
+     */
+    private Object store(String cacheKey, Map<String, Object> body) {
+        try {
+            byte[] data = smileMapper.writeValueAsBytes(body);
+            OffHeapRef ref = new OffHeapRef(cacheKey, data.length);
+            long start = arena.append(data, ref, overwrittenRefs::add);
+            if (start >= 0) {
+                ref.start = start;
+                return ref;
+            }
+        } catch (IOException e) {
+            logger.debug("Cannot serialize keyed response: {}", e.getMessage());
+        }
+        return Collections.unmodifiableMap(body);
+    }
+    
+    /**
+     * Удаляет из кеша ключи, записи которых затерты в буфере; ключ, уже получивший новое значение, не трогается.
+     */
+    private void removeOverwritten() {
+        OffHeapRef ref;
+        while ((ref = overwrittenRefs.poll()) != null) {
+            if (cache.asMap().remove(ref.cacheKey, ref)) {
+                offHeapOverwrittenCount.increment();
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> load(Object cached) {
+        if (!(cached instanceof OffHeapRef ref)) {
+            return (Map<String, Object>) cached;
+        }
+        byte[] data = arena.read(ref.start, ref.length);
+        if (data == null) {
+            return null;
+        }
+        try {
+            return Collections.unmodifiableMap(smileMapper.readValue(data, BODY_TYPE));
+        } catch (IOException e) {
+            logger.debug("Cannot read keyed response from off-heap buffer: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        Cache<String, Object> cache = this.cache;
+        if (cache == null) {
+            return;
+        }
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        if (arena != null) {
+            arena.invalidateAll();
+            overwrittenRefs.clear();
+        }
+        if (size > 0) {
+            logger.debug("Keyed response cache cleared ({} entries) for config version {}", size, version);
+        }
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "keyedCache";
+    }
+    
+    /**
+     * Возвращает размер кеша, счетчики попаданий, промахов и вытеснений.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Cache<String, Object> cache = this.cache;
+        CacheStats stats = cache != null ? cache.stats() : CacheStats.empty();
+        Map<String, Object> status = new HashMap<>();
+        status.put("maxEntries", maxEntries);
+        status.put("ttlSeconds", ttlSeconds);
+        status.put("entries", cache != null ? cache.estimatedSize() : 0L);
+        status.put("hitCount", stats.hitCount());
+        status.put("missCount", stats.missCount());
+        status.put("evictionCount", stats.evictionCount());
+        status.put("offHeapMb", offHeapMb);
+        status.put("offHeapOverwrittenCount", offHeapOverwrittenCount.sum());
+        return status;
+    }
+    
+    /**
+     * Ссылка на ответ в буфере вне кучи.
+     */
+    private static final class OffHeapRef {
+        final String cacheKey;
+        final int length;
+        // Выставляется сразу после append, до публикации ссылки в кеше
+        long start = -1;
+        
+        OffHeapRef(String cacheKey, int length) {
+            this.cacheKey = cacheKey;
+            this.length = length;
+        }
+    }
+}
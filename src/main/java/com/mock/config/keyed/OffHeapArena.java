@@ -0,0 +1,104 @@
+package com.mock.config.keyed;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Кольцевой буфер вне кучи для сериализованных ответов.
+ *
+ * Записи добавляются последовательно; когда буфер заполнен, новые записи затирают самые старые.
+ * Ссылка на запись - ее абсолютное смещение (start) и длина: запись действительна,
+ * пока head - capacity <= start. Пишут под блокировкой, читают без блокировок:
+ * писатель сначала публикует новый head и только затем пишет данные, а читатель после копирования
+ * проверяет, что запись не была затерта за время чтения.
+ *
+ * Для каждой записи хранится ее владелец (owner): при затирании записи владелец передается
+ * обработчику append, чтобы кеш удалил ключ, а не отдавал вместо него новые данные.
+ */
+final class OffHeapArena<T> {
+    
+    private final ByteBuffer buffer;
+    private final int capacity;
+    
+    // Действительные записи в порядке добавления; изменяется под блокировкой
+    private final ArrayDeque<Record<T>> records = new ArrayDeque<>();
+    
+    // Конец последней зарезервированной записи
+    private volatile long head;
+    
+    OffHeapArena(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Добавляет запись.
+     * @param owner владелец записи
+     * @param overwritten получает владельцев записей, затертых новой записью
+     * @return смещение записи или -1, если запись больше буфера
+     */
+    synchronized long append(byte[] data, T owner, Consumer<T> overwritten) {
+        if (data.length > capacity) {
+            return -1;
+        }
+        long start = head;
+        int position = (int) (start % capacity);
+        if (position + data.length > capacity) {
+            // Запись не разрывается: остаток буфера до конца пропускается
+            start += capacity - position;
+            position = 0;
+        }
+        head = start + data.length;
+        // Затираемые данные должны стать недействительными для читателей раньше, чем изменятся
+        VarHandle.fullFence();
+        buffer.put(position, data);
+        while (!records.isEmpty() && !isValid(records.peekFirst().start)) {
+            overwritten.accept(records.pollFirst().owner);
+        }
+        records.addLast(new Record<>(start, owner));
+        return start;
+    }
+    
+    /**
+     * Копирует запись.
+     * @return данные или null, если запись затерта более новыми
+     */
+    byte[] read(long start, int length) {
+        if (!isValid(start)) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        buffer.get((int) (start % capacity), data);
+        // Данные должны быть прочитаны до повторной проверки head
+        VarHandle.acquireFence();
+        return isValid(start) ? data : null;
+    }
+    
+    private boolean isValid(long start) {
+        return start >= 0 && head - capacity <= start;
+    }
+    
+    /**
+     * Делает недействительными все записи, не освобождая память.
+     */
+    synchronized void invalidateAll() {
+        head += capacity + capacity - head % capacity;
+        records.clear();
+    }
+    
+    int getCapacity() {
+        return capacity;
+    }
+    
+    private static final class Record<T> {
+        final long start;
+        final T owner;
+        
+        Record(long start, T owner) {
+            this.start = start;
+            this.owner = owner;
+        }
+    }
+}
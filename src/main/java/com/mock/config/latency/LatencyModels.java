@@ -0,0 +1,164 @@
+package com.mock.config.latency;
+
+import com.mock.config.ConfigApplyListener;
+import com.mock.config.StubResponse;
+import com.mock.config.stats.StatsContributor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Модели задержки, зависящей от нагрузки, полученные из MockController в секции "latencyModels".
+ *
+ * Формат секции:
+ * <pre>
+ * "latencyModels": {
+ *   "userLogin": {"servers": 8, "serviceTimeMs": 20, "distribution": "exponential", "maxDelayMs": 5000}
+ * }
+ * </pre>
+ * Эндпоинт ведет себя как очередь M/M/c: c = servers обработчиков со средним временем обслуживания S.
+ * Запрос, заставший n запросов в обработке (вместе с ним), ждет освобождения n - c обработчиков,
+ * в среднем (n - c) * S / c, и затем обслуживается. Время обслуживания распределено экспоненциально
+ * ("exponential", по умолчанию) или постоянно ("constant"). Без serviceTimeMs временем обслуживания
+ * считается задержка, определенная параметрами delay*, сценариями и правилами.
+ * Итоговая задержка ограничена maxDelayMs.
+ */
+@Component
+public class LatencyModels implements ConfigApplyListener, StatsContributor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LatencyModels.class);
+    
+    public static final String CONFIG_KEY = "latencyModels";
+    
+    private volatile Map<String, Model> models = Map.of();
+    
+    /**
+     * Заменяет задержку ответа задержкой модели эндпоинта.
+     * @param inFlight количество запросов эндпоинта в обработке, включая текущий
+     */
+    public StubResponse apply(String endpoint, StubResponse response, int inFlight) {
+        Model model = models.get(endpoint);
+        if (model == null) {
+            return response;
+        }
+        long serviceNanos = model.serviceTimeNanos > 0 ? model.serviceTimeNanos : response.getDelayNanos();
+        if (serviceNanos <= 0) {
+            return response;
+        }
+        long delayNanos = model.exponential
+            ? (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * serviceNanos)
+            : serviceNanos;
+        int queued = Math.max(1, inFlight) - model.servers;
+        if (queued > 0) {
+            delayNanos += queued * serviceNanos / model.servers;
+            model.queuedCount.increment();
+        }
+        model.appliedCount.increment();
+        boolean preciseDelay = serviceNanos % TimeUnit.MILLISECONDS.toNanos(1) != 0;
+        return response.withDelayNanos(Math.min(delayNanos, model.maxDelayNanos), preciseDelay);
+    }
+    
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        Object section = config.get(CONFIG_KEY);
+        Map<String, Model> parsed = new HashMap<>();
+        if (section instanceof Map<?, ?> modelsByEndpoint) {
+            for (Map.Entry<?, ?> entry : modelsByEndpoint.entrySet()) {
+                String endpoint = String.valueOf(entry.getKey());
+                Model model = parseModel(endpoint, entry.getValue());
+                if (model != null) {
+                    parsed.put(endpoint, model);
+                }
+            }
+        } else if (section != null) {
+            logger.warn("Section '{}' must be an object keyed by endpoint, got: {}", CONFIG_KEY, section);
+        }
+        models = parsed;
+        if (!parsed.isEmpty()) {
+            logger.info("Applied latency models for {}, version: {}", parsed.keySet(), version);
+        }
+    }
+    
+    private Model parseModel(String endpoint, Object modelObj) {
+        if (!(modelObj instanceof Map<?, ?> spec)) {
+            logger.warn("Skipping invalid latency model for {}: expected object, got {}", endpoint, modelObj);
+            return null;
+        }
+        try {
+            int servers = spec.get("servers") != null ? (int) number(spec, "servers") : 1;
+            double serviceTimeMs = spec.get("serviceTimeMs") != null ? number(spec, "serviceTimeMs") : 0;
+            double maxDelayMs = spec.get("maxDelayMs") != null ? number(spec, "maxDelayMs") : TimeUnit.MINUTES.toMillis(10);
+            String distribution = spec.get("distribution") != null
+                ? String.valueOf(spec.get("distribution")).trim().toLowerCase() : "exponential";
+            if (servers <= 0 || serviceTimeMs < 0 || maxDelayMs < 0) {
+                throw new IllegalArgumentException("servers must be positive, serviceTimeMs and maxDelayMs non-negative");
+            }
+            if (!distribution.equals("exponential") && !distribution.equals("constant")) {
+                throw new IllegalArgumentException("unknown distribution '" + distribution + "'");
+            }
+            return new Model(servers, millisToNanos(serviceTimeMs), millisToNanos(maxDelayMs), distribution.equals("exponential"));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid latency model for {}: {}", endpoint, e.getMessage());
+            return null;
+        }
+    }
+    
+    private double number(Map<?, ?> spec, String key) {
+        return Double.parseDouble(String.valueOf(spec.get(key)).trim());
+    }
+    
+    private long millisToNanos(double millis) {
+        return Math.round(millis * 1_000_000L);
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "latencyModels";
+    }
+    
+    /**
+     * Возвращает параметры моделей и количество запросов, прошедших через модель и ожидавших в очереди.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new TreeMap<>();
+        for (Map.Entry<String, Model> entry : models.entrySet()) {
+            Model model = entry.getValue();
+            Map<String, Object> modelStatus = new LinkedHashMap<>();
+            modelStatus.put("servers", model.servers);
+            modelStatus.put("serviceTimeMicros", TimeUnit.NANOSECONDS.toMicros(model.serviceTimeNanos));
+            modelStatus.put("distribution", model.exponential ? "exponential" : "constant");
+            modelStatus.put("appliedCount", model.appliedCount.sum());
+            modelStatus.put("queuedCount", model.queuedCount.sum());
+            status.put(entry.getKey(), modelStatus);
+        }
+        return status;
+    }
+    
+    /**
+     * Параметры очереди одного эндпоинта.
+     */
+    private static final class Model {
+        final int servers;
+        final long serviceTimeNanos;
+        final long maxDelayNanos;
+        final boolean exponential;
+        final LongAdder appliedCount = new LongAdder();
+        final LongAdder queuedCount = new LongAdder();
+        
+        Model(int servers, long serviceTimeNanos, long maxDelayNanos, boolean exponential) {
+            this.servers = servers;
+            this.serviceTimeNanos = serviceTimeNanos;
+            this.maxDelayNanos = maxDelayNanos;
+            this.exponential = exponential;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.mock.config.reactive;
+
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponder;
+import com.mock.config.StubResponse;
+import com.mock.config.admission.AdmissionController;
+import com.mock.config.admission.EndpointBulkheads;
+import com.mock.config.callback.CallbackDispatcher;
+import com.mock.config.compression.CompressedBodyCache;
+import com.mock.config.jfr.ResponseDelayEvent;
+import com.mock.config.stats.EndpointStatsRegistry;
+import com.mock.config.warmup.WarmupStage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Формирует ответ эндпоинта заглушки в реактивном режиме (профиль reactive).
+ * Ответ определяется так же, как в servlet-режиме, через StubResponder,
+ * но задержка выполняется через Mono.delay и не занимает поток на время ожидания.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStubResponder {
+    
+    @Autowired
+    private StubResponder stubResponder;
+    
+    @Autowired
+    private EndpointStatsRegistry endpointStatsRegistry;
+    
+    @Autowired
+    private AdmissionController admissionController;
+    
+    @Autowired
+    private CompressedBodyCache compressedBodyCache;
+    
+    @Autowired
+    private CallbackDispatcher callbackDispatcher;
+    
+    @Autowired
+    private WarmupStage warmupStage;
+    
+    @Autowired
+    private EndpointBulkheads endpointBulkheads;
+    
+    /**
+     * Создает запрос заглушки из ServerRequest.
+     */
+    public static StubRequest toStubRequest(String endpoint, ServerRequest request, Map<String, Object> body) {
+        return new StubRequest(
+            endpoint,
+            request.pathVariables(),
+            name -> request.queryParam(name).orElse(null),
+            name -> request.headers().firstHeader(name),
+            body
+        );
+    }
+    
+    /**
+     * Возвращает ответ эндпоинта после ожидания в очереди эндпоинта (EndpointBulkheads) и задержки
+     * без блокировки потока.
+     */
+    public Mono<ServerResponse> respond(StubRequest request, StubResponse defaults) {
+        boolean warmup = warmupStage.isWarmupRequest(request);
+        String endpoint = request.getEndpoint();
+        String statsKey = warmupStage.statsKey(request, warmup);
+        long startNanos = endpointStatsRegistry.requestStarted(statsKey);
+        StubResponse resolved;
+        long admittedCost;
+        try {
+            resolved = stubResponder.resolve(request, defaults);
+            admittedCost = admissionController.tryAcquire(resolved);
+        } catch (RuntimeException e) {
+            endpointStatsRegistry.requestFinished(statsKey, startNanos, null);
+            throw e;
+        }
+        if (admittedCost < 0) {
+            StubResponse rejected = admissionController.rejectResponse();
+            return toServerResponse(request, rejected)
+                .doFinally(signal -> endpointStatsRegistry.requestFinished(statsKey, startNanos, rejected));
+        }
+        BulkheadSlot slot = new BulkheadSlot(endpoint);
+        AtomicReference<StubResponse> sent = new AtomicReference<>(resolved);
+        return slot.acquire()
+            .flatMap(acquired -> {
+                if (!acquired) {
+                    sent.set(admissionController.rejectResponse());
+                    return toServerResponse(request, sent.get());
+                }
+                callbackDispatcher.onResponse(request, resolved);
+                return delayed(request, resolved, warmup);
+            })
+            .doFinally(signal -> {
+                slot.release();
+                admissionController.release(admittedCost);
+                endpointStatsRegistry.requestFinished(statsKey, startNanos, sent.get());
+            });
+    }
+    
+    /**
+     * Возвращает ответ эндпоинта, тело запроса которого читается потоком (приемник загрузок).
+     * Лимиты и статистика захватываются до подписки на defaults, поэтому учитывают время загрузки;
+     * отклоненный запрос получает ответ без чтения тела. Место в лимите эндпоинта, как и в servlet-режиме,
+     * занимается без очереди.
+     * @param defaults ответ по умолчанию, который строится после чтения тела
+     */
+    public Mono<ServerResponse> respondAfterBody(StubRequest request, Mono<StubResponse> defaults) {
+        boolean warmup = warmupStage.isWarmupRequest(request);
+        String endpoint = request.getEndpoint();
+        String statsKey = warmupStage.statsKey(request, warmup);
+        long startNanos = endpointStatsRegistry.requestStarted(statsKey);
+        long admittedCost = admissionController.tryAcquire();
+        if (admittedCost >= 0 && !endpointBulkheads.tryAcquire(endpoint)) {
+            admissionController.release(admittedCost);
+            admittedCost = -1;
+        }
+        if (admittedCost < 0) {
+            StubResponse rejected = admissionController.rejectResponse();
+            return toServerResponse(request, rejected)
+                .doFinally(signal -> endpointStatsRegistry.requestFinished(statsKey, startNanos, rejected));
+        }
+        long cost = admittedCost;
+        AtomicReference<StubResponse> resolved = new AtomicReference<>();
+        return defaults
+            .flatMap(response -> {
+                resolved.set(stubResponder.resolve(request, response));
+                callbackDispatcher.onResponse(request, resolved.get());
+                return delayed(request, resolved.get(), warmup);
+            })
+            .doFinally(signal -> {
+                endpointBulkheads.release(endpoint);
+                admissionController.release(cost);
+                endpointStatsRegistry.requestFinished(statsKey, startNanos, resolved.get());
+            });
+    }
+    
+    /**
+     * Ответ, отдаваемый после задержки response; запрос прогрева (WarmupStage) отвечает без задержки.
+     */
+    private Mono<ServerResponse> delayed(StubRequest request, StubResponse response, boolean warmup) {
+        Mono<ServerResponse> serverResponse = toServerResponse(request, response);
+        long delayNanos = response.getDelayNanos();
+        if (delayNanos <= 0 || warmup) {
+            return serverResponse;
+        }
+        long delayStartNanos = System.nanoTime();
+        return Mono.delay(Duration.ofNanos(delayNanos))
+            .doOnNext(tick -> recordDelay(request.getEndpoint(), response.getStatus(), delayNanos, delayStartNanos))
+            .then(serverResponse);
+    }
+    
+    /**
+     * Место в лимите эндпоинта для одного ответа. Место, которое запрос получил из очереди после
+     * отмены (клиент закрыл соединение), сразу освобождается.
+     */
+    private final class BulkheadSlot {
+        private final String endpoint;
+        private boolean acquired;
+        private boolean closed;
+        
+        BulkheadSlot(String endpoint) {
+            this.endpoint = endpoint;
+        }
+        
+        /**
+         * Завершается true, когда место получено, или false, если очередь эндпоинта переполнена.
+         */
+        Mono<Boolean> acquire() {
+            return Mono.create(sink -> {
+                EndpointBulkheads.Admission admission = endpointBulkheads.acquire(endpoint, () -> {
+                    if (granted()) {
+                        sink.success(true);
+                    }
+                });
+                if (admission == EndpointBulkheads.Admission.REJECTED) {
+                    sink.success(false);
+                } else if (admission == EndpointBulkheads.Admission.ACQUIRED && granted()) {
+                    sink.success(true);
+                }
+            });
+        }
+        
+        private synchronized boolean granted() {
+            if (closed) {
+                endpointBulkheads.release(endpoint);
+                return false;
+            }
+            acquired = true;
+            return true;
+        }
+        
+        synchronized void release() {
+            closed = true;
+            if (acquired) {
+                acquired = false;
+                endpointBulkheads.release(endpoint);
+            }
+        }
+    }
+    
+    private Mono<ServerResponse> toServerResponse(StubRequest request, StubResponse response) {
+        ServerResponse.BodyBuilder builder = ServerResponse.status(response.getStatus())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (compressedBodyCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            byte[] gzipBody = compressedBodyCache.gzipBody(request.getEndpoint(), response.getBody());
+            if (gzipBody != null) {
+                return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .bodyValue(gzipBody);
+            }
+        }
+        return builder.bodyValue(response.getBody());
+    }
+    
+    /**
+     * Записывает событие JFR о задержке; время ожидания считается от начала задержки.
+     */
+    private void recordDelay(String endpoint, int status, long delayNanos, long delayStartNanos) {
+        ResponseDelayEvent event = new ResponseDelayEvent();
+        if (event.isEnabled()) {
+            long actual = System.nanoTime() - delayStartNanos;
+            event.endpoint = endpoint;
+            event.status = status;
+            event.configuredDelay = delayNanos;
+            event.actualDelay = actual;
+            event.skew = actual - delayNanos;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mock.config.rules;
+
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+
+import java.util.Map;
+
+/**
+ * Правило условного ответа: если все условия выполнены, ответ эндпоинта
+ * заменяется статусом, задержкой и полями тела из правила.
+ * Не заданные в правиле части ответа остаются значениями по умолчанию.
+ */
+public class ResponseRule {
+    
+    private final String name;
+    private final int order;
+    private final String[] conditionKeys;
+    private final String[] conditionValues;
+    private final Integer status;
+    private final Long delayNanos;
+    private final Map<String, Object> body;
+    
+    public ResponseRule(String name, int order, Map<String, String> conditions,
+                        Integer status, Long delayNanos, Map<String, Object> body) {
+        this.name = name;
+        this.order = order;
+        this.conditionKeys = conditions.keySet().toArray(new String[0]);
+        this.conditionValues = conditions.values().toArray(new String[0]);
+        this.status = status;
+        this.delayNanos = delayNanos;
+        this.body = body;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Порядковый номер правила в конфиге: при нескольких совпадениях побеждает меньший.
+     */
+    public int getOrder() {
+        return order;
+    }
+    
+    /**
+     * Возвращает ожидаемое значение условия по ключу или null, если такого условия нет.
+     */
+    String getConditionValue(String key) {
+        for (int i = 0; i < conditionKeys.length; i++) {
+            if (conditionKeys[i].equals(key)) {
+                return conditionValues[i];
+            }
+        }
+        return null;
+    }
+    
+    String[] getConditionKeys() {
+        return conditionKeys;
+    }
+    
+    boolean matches(StubRequest request) {
+        for (int i = 0; i < conditionKeys.length; i++) {
+            if (!conditionValues[i].equals(request.lookup(conditionKeys[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    StubResponse applyTo(StubResponse response) {
+        StubResponse result = response;
+        if (status != null) {
+            result = result.withStatus(status);
+        }
+        if (delayNanos != null) {
+            result = result.withDelayNanos(delayNanos);
+        }
+        if (body != null && !body.isEmpty()) {
+            result = result.withBodyFields(body);
+        }
+        return result;
+    }
+}
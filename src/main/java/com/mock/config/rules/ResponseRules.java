@@ -0,0 +1,173 @@
+package com.mock.config.rules;
+
+import com.mock.config.ConfigApplyListener;
+import com.mock.config.DelayUnits;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Правила условных ответов, полученные из MockController в секции "rules".
+ *
+ * Формат секции:
+ * <pre>
+ * "rules": {
+ *   "userLogin": [
+ *     {"name": "blocked", "when": {"body.login": "blocked"}, "status": 403, "delayMs": 300,
+ *      "body": {"result": "User is blocked"}}
+ *   ]
+ * }
+ * </pre>
+ * Правила компилируются один раз на каждую версию конфига в дерево решений по эндпоинту,
+ * поэтому стоимость сопоставления почти не зависит от количества правил.
+ */
+@Component
+public class ResponseRules implements ConfigApplyListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResponseRules.class);
+    
+    public static final String CONFIG_KEY = "rules";
+    
+    private volatile CompiledRules compiledRules = CompiledRules.EMPTY;
+    
+    /**
+     * Применяет к ответу первое подходящее правило эндпоинта.
+     * Если подходящих правил нет, возвращает исходный ответ.
+     */
+    public StubResponse apply(StubRequest request, StubResponse response) {
+        RuleNode root = compiledRules.roots.get(request.getEndpoint());
+        if (root == null) {
+            return response;
+        }
+        ResponseRule rule = root.match(request);
+        if (rule == null) {
+            return response;
+        }
+        logger.debug("Rule '{}' matched for endpoint {}", rule.getName(), request.getEndpoint());
+        return rule.applyTo(response);
+    }
+    
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        Object rulesObj = config.get(CONFIG_KEY);
+        if (!(rulesObj instanceof Map<?, ?> rulesByEndpoint)) {
+            if (rulesObj != null) {
+                logger.warn("Section '{}' must be an object keyed by endpoint, got: {}", CONFIG_KEY, rulesObj);
+            }
+            compiledRules = new CompiledRules(Collections.emptyMap(), version, 0);
+            return;
+        }
+        
+        Map<String, RuleNode> roots = new HashMap<>();
+        int total = 0;
+        for (Map.Entry<?, ?> entry : rulesByEndpoint.entrySet()) {
+            String endpoint = String.valueOf(entry.getKey());
+            if (!(entry.getValue() instanceof List<?> ruleList)) {
+                logger.warn("Rules for endpoint {} must be a list, skipping", endpoint);
+                continue;
+            }
+            List<ResponseRule> rules = new ArrayList<>();
+            for (Object ruleObj : ruleList) {
+                ResponseRule rule = parseRule(endpoint, ruleObj, rules.size());
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
+            if (!rules.isEmpty()) {
+                roots.put(endpoint, RuleNode.build(rules));
+                total += rules.size();
+            }
+        }
+        
+        compiledRules = new CompiledRules(roots, version, total);
+        logger.info("Compiled {} response rules for {} endpoints, version: {}", total, roots.size(), version);
+    }
+    
+    /**
+     * Разбирает одно правило. Невалидное правило пропускается с предупреждением,
+     * остальные правила эндпоинта применяются нормально.
+     */
+    private ResponseRule parseRule(String endpoint, Object ruleObj, int order) {
+        if (!(ruleObj instanceof Map<?, ?> ruleMap)) {
+            logger.warn("Skipping invalid rule #{} for endpoint {}: expected object, got {}", order, endpoint, ruleObj);
+            return null;
+        }
+        String name = ruleMap.get("name") != null ? String.valueOf(ruleMap.get("name")) : endpoint + "#" + order;
+        try {
+            Map<String, String> conditions = new LinkedHashMap<>();
+            Object whenObj = ruleMap.get("when");
+            if (whenObj instanceof Map<?, ?> when) {
+                for (Map.Entry<?, ?> condition : when.entrySet()) {
+                    String key = String.valueOf(condition.getKey());
+                    if (!isSupportedKey(key)) {
+                        throw new IllegalArgumentException("unsupported condition key '" + key
+                            + "' (expected path.*, query.*, header.* or body.*)");
+                    }
+                    conditions.put(key, String.valueOf(condition.getValue()));
+                }
+            } else if (whenObj != null) {
+                throw new IllegalArgumentException("'when' must be an object");
+            }
+            
+            Integer status = ruleMap.get("status") != null
+                ? Integer.valueOf(String.valueOf(ruleMap.get("status")).trim()) : null;
+            Long delayNanos = DelayUnits.readDelayNanos(ruleMap);
+            Map<String, Object> body = null;
+            if (ruleMap.get("body") instanceof Map<?, ?> bodyMap) {
+                body = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> field : bodyMap.entrySet()) {
+                    body.put(String.valueOf(field.getKey()), field.getValue());
+                }
+            }
+            return new ResponseRule(name, order, conditions, status, delayNanos, body);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid rule '{}' for endpoint {}: {}", name, endpoint, e.getMessage());
+            return null;
+        }
+    }
+    
+    private boolean isSupportedKey(String key) {
+        return key.startsWith(StubRequest.PATH_PREFIX)
+            || key.startsWith(StubRequest.QUERY_PREFIX)
+            || key.startsWith(StubRequest.HEADER_PREFIX)
+            || key.startsWith(StubRequest.BODY_PREFIX);
+    }
+    
+    /**
+     * Возвращает информацию о скомпилированных правилах.
+     */
+    public Map<String, Object> getStatus() {
+        CompiledRules current = compiledRules;
+        Map<String, Object> status = new HashMap<>();
+        status.put("rulesVersion", current.version != null ? current.version : "None");
+        status.put("rulesCount", current.ruleCount);
+        status.put("rulesEndpoints", current.roots.keySet());
+        return status;
+    }
+    
+    /**
+     * Снимок правил, скомпилированных для одной версии конфига.
+     */
+    private static final class CompiledRules {
+        static final CompiledRules EMPTY = new CompiledRules(Collections.emptyMap(), null, 0);
+        
+        final Map<String, RuleNode> roots;
+        final String version;
+        final int ruleCount;
+        
+        CompiledRules(Map<String, RuleNode> roots, String version, int ruleCount) {
+            this.roots = roots;
+            this.version = version;
+            this.ruleCount = ruleCount;
+        }
+    }
+}
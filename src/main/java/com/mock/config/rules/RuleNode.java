@@ -0,0 +1,127 @@
+package com.mock.config.rules;
+
+import com.mock.config.StubRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Узел дерева решений, скомпилированного из правил одного эндпоинта.
+ *
+ * Внутренний узел ветвится по ключу, который встречается в условиях большинства правил:
+ * значение этого ключа из запроса ищется в хеш-таблице, поэтому правила с другими
+ * значениями вообще не проверяются. Правила без условия на этот ключ уходят в ветку rest.
+ * Лист проверяет небольшой список правил последовательно.
+ */
+final class RuleNode {
+    
+    /**
+     * Максимальное количество правил в листе, при котором дальнейшее ветвление не выполняется.
+     */
+    static final int LEAF_SIZE = 4;
+    
+    private final String key;
+    private final Map<String, RuleNode> children;
+    private final RuleNode rest;
+    private final ResponseRule[] rules;
+    
+    private RuleNode(String key, Map<String, RuleNode> children, RuleNode rest, ResponseRule[] rules) {
+        this.key = key;
+        this.children = children;
+        this.rest = rest;
+        this.rules = rules;
+    }
+    
+    /**
+     * Строит дерево решений из правил, упорядоченных по порядку объявления.
+     */
+    static RuleNode build(List<ResponseRule> rules) {
+        return build(rules, new HashSet<>());
+    }
+    
+    private static RuleNode build(List<ResponseRule> rules, Set<String> usedKeys) {
+        if (rules.size() <= LEAF_SIZE) {
+            return leaf(rules);
+        }
+        
+        // Выбираем ключ, по которому можно разделить наибольшее число правил
+        Map<String, Integer> keyCounts = new HashMap<>();
+        for (ResponseRule rule : rules) {
+            for (String conditionKey : rule.getConditionKeys()) {
+                if (!usedKeys.contains(conditionKey)) {
+                    keyCounts.merge(conditionKey, 1, Integer::sum);
+                }
+            }
+        }
+        String bestKey = null;
+        int bestCount = 1;
+        for (Map.Entry<String, Integer> entry : keyCounts.entrySet()) {
+            if (entry.getValue() > bestCount) {
+                bestKey = entry.getKey();
+                bestCount = entry.getValue();
+            }
+        }
+        if (bestKey == null) {
+            return leaf(rules);
+        }
+        
+        Map<String, List<ResponseRule>> partitions = new LinkedHashMap<>();
+        List<ResponseRule> restRules = new ArrayList<>();
+        for (ResponseRule rule : rules) {
+            String value = rule.getConditionValue(bestKey);
+            if (value != null) {
+                partitions.computeIfAbsent(value, v -> new ArrayList<>()).add(rule);
+            } else {
+                restRules.add(rule);
+            }
+        }
+        
+        Set<String> childKeys = new HashSet<>(usedKeys);
+        childKeys.add(bestKey);
+        Map<String, RuleNode> children = new HashMap<>();
+        for (Map.Entry<String, List<ResponseRule>> entry : partitions.entrySet()) {
+            children.put(entry.getKey(), build(entry.getValue(), childKeys));
+        }
+        RuleNode rest = restRules.isEmpty() ? null : build(restRules, childKeys);
+        return new RuleNode(bestKey, children, rest, null);
+    }
+    
+    private static RuleNode leaf(List<ResponseRule> rules) {
+        return new RuleNode(null, null, null, rules.toArray(new ResponseRule[0]));
+    }
+    
+    /**
+     * Возвращает первое по порядку объявления правило, подходящее под запрос, или null.
+     */
+    ResponseRule match(StubRequest request) {
+        if (rules != null) {
+            for (ResponseRule rule : rules) {
+                if (rule.matches(request)) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+        
+        ResponseRule matched = null;
+        String value = request.lookup(key);
+        if (value != null) {
+            RuleNode child = children.get(value);
+            if (child != null) {
+                matched = child.match(request);
+            }
+        }
+        if (rest != null) {
+            ResponseRule restMatched = rest.match(request);
+            if (restMatched != null && (matched == null || restMatched.getOrder() < matched.getOrder())) {
+                matched = restMatched;
+            }
+        }
+        return matched;
+    }
+}
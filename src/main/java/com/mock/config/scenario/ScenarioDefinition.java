@@ -0,0 +1,124 @@
+package com.mock.config.scenario;
+
+import com.mock.config.StubResponse;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Скомпилированный сценарий: переходы проиндексированы по эндпоинту и исходному состоянию,
+ * а состояния сессий хранятся в ConcurrentHashMap без глобальных блокировок.
+ */
+class ScenarioDefinition {
+    
+    /**
+     * Исходное состояние перехода, подходящее для любого состояния сессии.
+     */
+    static final String ANY_STATE = "*";
+    
+    private final String name;
+    private final String sessionHeader;
+    private final String initialState;
+    private final long ttlMillis;
+    private final int maxSessions;
+    private final Map<String, Map<String, ScenarioTransition>> transitions;
+    private final ConcurrentHashMap<String, SessionState> sessions;
+    
+    ScenarioDefinition(String name, String sessionHeader, String initialState, long ttlMillis, int maxSessions,
+                       Map<String, Map<String, ScenarioTransition>> transitions,
+                       ConcurrentHashMap<String, SessionState> sessions) {
+        this.name = name;
+        this.sessionHeader = sessionHeader;
+        this.initialState = initialState;
+        this.ttlMillis = ttlMillis;
+        this.maxSessions = maxSessions;
+        this.transitions = transitions;
+        this.sessions = sessions;
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    String getSessionHeader() {
+        return sessionHeader;
+    }
+    
+    Map<String, Map<String, ScenarioTransition>> getTransitions() {
+        return transitions;
+    }
+    
+    ConcurrentHashMap<String, SessionState> getSessions() {
+        return sessions;
+    }
+    
+    /**
+     * Выполняет переход для вызова эндпоинта в рамках сессии и применяет ответ перехода.
+     * Смена состояния выполняется CAS-операцией над записью сессии; при гонке двух запросов
+     * одной сессии переход вычисляется заново от нового состояния.
+     */
+    StubResponse advance(String sessionId, String endpoint, StubResponse response, long nowMillis) {
+        Map<String, ScenarioTransition> endpointTransitions = transitions.get(endpoint);
+        if (endpointTransitions == null) {
+            return response;
+        }
+        long expiresAt = nowMillis + ttlMillis;
+        
+        while (true) {
+            SessionState current = sessions.get(sessionId);
+            if (current != null && current.isExpired(nowMillis)) {
+                sessions.remove(sessionId, current);
+                current = null;
+            }
+            String state = current != null ? current.state : initialState;
+            
+            ScenarioTransition transition = endpointTransitions.get(state);
+            if (transition == null) {
+                transition = endpointTransitions.get(ANY_STATE);
+            }
+            if (transition == null) {
+                if (current != null) {
+                    current.touch(expiresAt);
+                }
+                return response;
+            }
+            
+            String toState = transition.getToState();
+            if (toState == null || toState.equals(state)) {
+                if (current != null) {
+                    current.touch(expiresAt);
+                }
+                return transition.applyTo(response);
+            }
+            
+            SessionState next = new SessionState(toState, expiresAt);
+            boolean updated;
+            if (current == null) {
+                if (sessions.size() >= maxSessions) {
+                    // Лимит сессий исчерпан: отвечаем по переходу, но состояние не сохраняем
+                    return transition.applyTo(response);
+                }
+                updated = sessions.putIfAbsent(sessionId, next) == null;
+            } else {
+                updated = sessions.replace(sessionId, current, next);
+            }
+            if (updated) {
+                return transition.applyTo(response);
+            }
+        }
+    }
+    
+    /**
+     * Удаляет истекшие сессии.
+     * @return количество удаленных сессий
+     */
+    int evictExpired(long nowMillis) {
+        int evicted = 0;
+        for (Map.Entry<String, SessionState> entry : sessions.entrySet()) {
+            if (entry.getValue().isExpired(nowMillis) && sessions.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+}
@@ -0,0 +1,209 @@
+package com.mock.config.scenario;
+
+import com.mock.config.ConfigApplyListener;
+import com.mock.config.DelayUnits;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Движок сценариев с состоянием, полученных из MockController в секции "scenarios".
+ *
+ * Формат секции:
+ * <pre>
+ * "scenarios": {
+ *   "userFlow": {
+ *     "sessionHeader": "X-Session-Id",
+ *     "initialState": "anonymous",
+ *     "ttlSeconds": 600,
+ *     "transitions": [
+ *       {"endpoint": "userLogin", "from": "anonymous", "to": "loggedIn"},
+ *       {"endpoint": "dataFetch", "from": "anonymous", "status": 401, "body": {"data": "Not logged in"}},
+ *       {"endpoint": "userLogout", "from": "*", "to": "anonymous"}
+ *     ]
+ *   }
+ * }
+ * </pre>
+ * Сессия определяется значением заголовка sessionHeader; запросы без заголовка сценарий не затрагивают.
+ * Состояния сессий хранятся в ConcurrentHashMap и меняются CAS-операциями, истекшие по TTL
+ * сессии удаляются при обращении и периодической очисткой.
+ */
+@Component
+public class ScenarioEngine implements ConfigApplyListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioEngine.class);
+    
+    public static final String CONFIG_KEY = "scenarios";
+    
+    private static final String DEFAULT_SESSION_HEADER = "X-Session-Id";
+    private static final String DEFAULT_INITIAL_STATE = "initial";
+    private static final long DEFAULT_TTL_SECONDS = 600;
+    private static final int DEFAULT_MAX_SESSIONS = 1_000_000;
+    
+    /**
+     * Сценарии, сгруппированные по эндпоинтам, для которых у них есть переходы.
+     */
+    private volatile Map<String, List<ScenarioDefinition>> scenariosByEndpoint = Collections.emptyMap();
+    private volatile Map<String, ScenarioDefinition> scenarios = Collections.emptyMap();
+    private volatile long evictedSessionsCount = 0;
+    
+    /**
+     * Выполняет переходы всех сценариев эндпоинта для сессии запроса и применяет их ответы.
+     */
+    public StubResponse apply(StubRequest request, StubResponse response) {
+        List<ScenarioDefinition> endpointScenarios = scenariosByEndpoint.get(request.getEndpoint());
+        if (endpointScenarios == null) {
+            return response;
+        }
+        long now = System.currentTimeMillis();
+        StubResponse result = response;
+        for (ScenarioDefinition scenario : endpointScenarios) {
+            String sessionId = request.getHeader(scenario.getSessionHeader());
+            if (sessionId != null && !sessionId.isEmpty()) {
+                result = scenario.advance(sessionId, request.getEndpoint(), result, now);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        Object scenariosObj = config.get(CONFIG_KEY);
+        Map<String, ScenarioDefinition> previous = scenarios;
+        Map<String, ScenarioDefinition> compiled = new LinkedHashMap<>();
+        
+        if (scenariosObj instanceof Map<?, ?> scenarioMap) {
+            for (Map.Entry<?, ?> entry : scenarioMap.entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                ScenarioDefinition scenario = parseScenario(name, entry.getValue(), previous.get(name));
+                if (scenario != null) {
+                    compiled.put(name, scenario);
+                }
+            }
+        } else if (scenariosObj != null) {
+            logger.warn("Section '{}' must be an object keyed by scenario name, got: {}", CONFIG_KEY, scenariosObj);
+        }
+        
+        Map<String, List<ScenarioDefinition>> byEndpoint = new HashMap<>();
+        for (ScenarioDefinition scenario : compiled.values()) {
+            for (String endpoint : scenario.getTransitions().keySet()) {
+                byEndpoint.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(scenario);
+            }
+        }
+        
+        scenarios = compiled;
+        scenariosByEndpoint = byEndpoint;
+        logger.info("Loaded {} scenarios, version: {}", compiled.size(), version);
+    }
+    
+    /**
+     * Разбирает сценарий. Сессии сценария с тем же именем из предыдущей версии конфига сохраняются.
+     */
+    private ScenarioDefinition parseScenario(String name, Object scenarioObj, ScenarioDefinition previous) {
+        if (!(scenarioObj instanceof Map<?, ?> scenarioMap)) {
+            logger.warn("Skipping invalid scenario {}: expected object, got {}", name, scenarioObj);
+            return null;
+        }
+        try {
+            String sessionHeader = stringOrDefault(scenarioMap.get("sessionHeader"), DEFAULT_SESSION_HEADER);
+            String initialState = stringOrDefault(scenarioMap.get("initialState"), DEFAULT_INITIAL_STATE);
+            long ttlSeconds = Long.parseLong(stringOrDefault(scenarioMap.get("ttlSeconds"), String.valueOf(DEFAULT_TTL_SECONDS)));
+            int maxSessions = Integer.parseInt(stringOrDefault(scenarioMap.get("maxSessions"), String.valueOf(DEFAULT_MAX_SESSIONS)));
+            if (ttlSeconds <= 0 || maxSessions <= 0) {
+                throw new IllegalArgumentException("ttlSeconds and maxSessions must be positive");
+            }
+            
+            Map<String, Map<String, ScenarioTransition>> transitions = new HashMap<>();
+            if (scenarioMap.get("transitions") instanceof List<?> transitionList) {
+                for (Object transitionObj : transitionList) {
+                    ScenarioTransition transition = parseTransition(name, transitionObj);
+                    if (transition != null) {
+                        transitions.computeIfAbsent(transition.getEndpoint(), e -> new HashMap<>())
+                            .putIfAbsent(transition.getFromState(), transition);
+                    }
+                }
+            }
+            
+            ConcurrentHashMap<String, SessionState> sessions = previous != null
+                ? previous.getSessions()
+                : new ConcurrentHashMap<>();
+            return new ScenarioDefinition(name, sessionHeader, initialState,
+                TimeUnit.SECONDS.toMillis(ttlSeconds), maxSessions, transitions, sessions);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid scenario {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+    
+    private ScenarioTransition parseTransition(String scenarioName, Object transitionObj) {
+        if (!(transitionObj instanceof Map<?, ?> transitionMap) || transitionMap.get("endpoint") == null) {
+            logger.warn("Skipping invalid transition in scenario {}: {}", scenarioName, transitionObj);
+            return null;
+        }
+        try {
+            String endpoint = String.valueOf(transitionMap.get("endpoint"));
+            String from = stringOrDefault(transitionMap.get("from"), ScenarioDefinition.ANY_STATE);
+            String to = transitionMap.get("to") != null ? String.valueOf(transitionMap.get("to")) : null;
+            Integer status = transitionMap.get("status") != null
+                ? Integer.valueOf(String.valueOf(transitionMap.get("status")).trim()) : null;
+            Long delayNanos = DelayUnits.readDelayNanos(transitionMap);
+            Map<String, Object> body = null;
+            if (transitionMap.get("body") instanceof Map<?, ?> bodyMap) {
+                body = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> field : bodyMap.entrySet()) {
+                    body.put(String.valueOf(field.getKey()), field.getValue());
+                }
+            }
+            return new ScenarioTransition(endpoint, from, to, status, delayNanos, body);
+        } catch (NumberFormatException e) {
+            logger.warn("Skipping invalid transition in scenario {}: {}", scenarioName, e.getMessage());
+            return null;
+        }
+    }
+    
+    private String stringOrDefault(Object value, String defaultValue) {
+        return value != null ? String.valueOf(value).trim() : defaultValue;
+    }
+    
+    /**
+     * Периодически удаляет истекшие по TTL сессии.
+     */
+    @Scheduled(fixedDelayString = "${mock-controller.scenario-eviction-interval-seconds:30}000")
+    public void evictExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (ScenarioDefinition scenario : scenarios.values()) {
+            evicted += scenario.evictExpired(now);
+        }
+        if (evicted > 0) {
+            evictedSessionsCount += evicted;
+            logger.debug("Evicted {} expired scenario sessions", evicted);
+        }
+    }
+    
+    /**
+     * Возвращает количество активных сессий по сценариям.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        Map<String, Integer> sessions = new HashMap<>();
+        for (ScenarioDefinition scenario : scenarios.values()) {
+            sessions.put(scenario.getName(), scenario.getSessions().size());
+        }
+        status.put("scenarioSessions", sessions);
+        status.put("evictedSessionsCount", evictedSessionsCount);
+        return status;
+    }
+}
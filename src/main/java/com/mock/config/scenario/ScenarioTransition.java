@@ -0,0 +1,58 @@
+package com.mock.config.scenario;
+
+import com.mock.config.StubResponse;
+
+import java.util.Map;
+
+/**
+ * Переход сценария: вызов эндпоинта в состоянии from переводит сессию в состояние to
+ * и, при необходимости, заменяет статус, задержку или поля тела ответа.
+ */
+public class ScenarioTransition {
+    
+    private final String endpoint;
+    private final String fromState;
+    private final String toState;
+    private final Integer status;
+    private final Long delayNanos;
+    private final Map<String, Object> body;
+    
+    public ScenarioTransition(String endpoint, String fromState, String toState,
+                              Integer status, Long delayNanos, Map<String, Object> body) {
+        this.endpoint = endpoint;
+        this.fromState = fromState;
+        this.toState = toState;
+        this.status = status;
+        this.delayNanos = delayNanos;
+        this.body = body;
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public String getFromState() {
+        return fromState;
+    }
+    
+    /**
+     * Целевое состояние или null, если переход не меняет состояние сессии.
+     */
+    public String getToState() {
+        return toState;
+    }
+    
+    StubResponse applyTo(StubResponse response) {
+        StubResponse result = response;
+        if (status != null) {
+            result = result.withStatus(status);
+        }
+        if (delayNanos != null) {
+            result = result.withDelayNanos(delayNanos);
+        }
+        if (body != null && !body.isEmpty()) {
+            result = result.withBodyFields(body);
+        }
+        return result;
+    }
+}
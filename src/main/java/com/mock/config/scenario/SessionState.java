@@ -0,0 +1,25 @@
+package com.mock.config.scenario;
+
+/**
+ * Состояние одной сессии сценария.
+ * Имя состояния неизменяемо: переход заменяет объект целиком через CAS в ConcurrentHashMap,
+ * а продление TTL при каждом обращении - это только запись volatile поля.
+ */
+final class SessionState {
+    
+    final String state;
+    private volatile long expiresAtMillis;
+    
+    SessionState(String state, long expiresAtMillis) {
+        this.state = state;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+    
+    boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+    
+    void touch(long expiresAtMillis) {
+        this.expiresAtMillis = expiresAtMillis;
+    }
+}
@@ -0,0 +1,203 @@
+package com.mock.config.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.config.AppConfig;
+import com.mock.config.ConfigAggregator;
+import com.mock.config.ConfigApplyListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Общий для процессов одного хоста снимок конфига (mock-controller.shared-snapshot.path).
+ *
+ * Процессы выбирают лидера блокировкой файла {path}.lock: лидер синхронизируется с MockController
+ * как обычно и после применения каждой версии записывает конфиг в отображенный в память файл снимка.
+ * Остальные процессы (ведомые) не обращаются к MockController и применяют снимки из файла
+ * (см. SharedSnapshotFollower). Блокировка снимается ОС при завершении лидера,
+ * после чего один из ведомых становится лидером при следующей попытке выбора и сразу публикует
+ * последнюю примененную версию конфига (или загружает конфиг из MockController, если еще не применял его).
+ * Снимок содержит имя системы (spring.application.name): ведомые другой системы его не применяют.
+ */
+@Component
+public class SharedConfigSnapshot implements ConfigApplyListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SharedConfigSnapshot.class);
+    
+    @Value("${mock-controller.shared-snapshot.path:}")
+    private String path;
+    
+    @Value("${mock-controller.shared-snapshot.capacity-kb:4096}")
+    private int capacityKb;
+    
+    @Autowired
+    private AppConfig appConfig;
+    
+    /**
+     * ConfigAggregator сам зависит от снимка, поэтому получается при смене лидера, а не при создании.
+     */
+    @Autowired
+    private ObjectProvider<ConfigAggregator> configAggregator;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private volatile SnapshotMapping mapping;
+    private FileChannel lockChannel;
+    private volatile FileLock lock;
+    private volatile long publishedCount = 0;
+    
+    @PostConstruct
+    public void init() {
+        if (path == null || path.isBlank()) {
+            return;
+        }
+        try {
+            Path snapshotPath = Paths.get(path);
+            mapping = new SnapshotMapping(snapshotPath, capacityKb * 1024);
+            lockChannel = FileChannel.open(Paths.get(path + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            tryLock();
+            if (lock == null) {
+                logger.info("Shared config snapshot {}: running as follower", snapshotPath);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot open shared config snapshot {}: {}. Falling back to direct MockController sync.",
+                path, e.getMessage());
+            close();
+        }
+    }
+    
+    /**
+     * Пытается стать лидером, если лидера на хосте нет. Ведомый, ставший лидером, публикует
+     * последнюю примененную версию конфига: предыдущий лидер мог завершиться, не опубликовав ее.
+     */
+    @Scheduled(fixedDelayString = "${mock-controller.shared-snapshot.election-interval-millis:1000}")
+    public void electLeader() {
+        if (tryLock()) {
+            configAggregator.getObject().onSharedSnapshotLeadership();
+        }
+    }
+    
+    /**
+     * @return true, если процесс только что стал лидером
+     */
+    private synchronized boolean tryLock() {
+        if (lockChannel == null || lock != null) {
+            return false;
+        }
+        try {
+            lock = lockChannel.tryLock();
+            if (lock != null) {
+                logger.info("Shared config snapshot {}: elected as leader", path);
+                return true;
+            }
+        } catch (IOException e) {
+            logger.warn("Leader election on {}.lock failed: {}", path, e.getMessage());
+        }
+        return false;
+    }
+    
+    /**
+     * true, если режим включен и процесс не является лидером:
+     * такой процесс не обращается к MockController и читает конфиг из снимка.
+     */
+    public boolean isFollower() {
+        return mapping != null && lock == null;
+    }
+    
+    /**
+     * Лидер записывает каждую примененную версию конфига в снимок.
+     */
+    @Override
+    public void onConfigApplied(Map<String, Object> config, String version) {
+        publish(config, version);
+    }
+    
+    /**
+     * Записывает версию конфига в снимок, если процесс - лидер.
+     */
+    public void publish(Map<String, Object> config, String version) {
+        if (mapping == null || lock == null) {
+            return;
+        }
+        try {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("systemName", getSystemName());
+            payload.put("version", version);
+            payload.put("config", config);
+            long sequence = mapping.write(objectMapper.writeValueAsBytes(payload));
+            publishedCount++;
+            logger.debug("Published config version {} to shared snapshot (sequence {})", version, sequence);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Cannot publish config version {} to shared snapshot {}: {}", version, path, e.getMessage());
+        }
+    }
+    
+    /**
+     * Имя системы, конфиг которой записывается в снимок и применяется из него.
+     */
+    String getSystemName() {
+        return appConfig.getName();
+    }
+    
+    /**
+     * Читает снимок, если он изменился после lastSequence.
+     */
+    SnapshotMapping.Snapshot readIfChanged(long lastSequence) {
+        return mapping != null ? mapping.readIfChanged(lastSequence) : null;
+    }
+    
+    @PreDestroy
+    public synchronized void close() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+            if (mapping != null) {
+                mapping.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error closing shared config snapshot {}: {}", path, e.getMessage());
+        } finally {
+            lock = null;
+            lockChannel = null;
+            mapping = null;
+        }
+    }
+    
+    /**
+     * Возвращает роль процесса и состояние снимка.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        SnapshotMapping current = mapping;
+        if (current == null) {
+            status.put("sharedSnapshotRole", "disabled");
+            return status;
+        }
+        status.put("sharedSnapshotRole", lock != null ? "leader" : "follower");
+        status.put("sharedSnapshotPath", path);
+        status.put("sharedSnapshotSequence", current.getSequence());
+        status.put("sharedSnapshotPublishedCount", publishedCount);
+        return status;
+    }
+}
@@ -0,0 +1,66 @@
+package com.mock.config.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.config.ConfigAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Применяет в ведомом процессе снимки конфига, записанные лидером хоста.
+ * Проверка снимка - чтение одного long из отображенного в память файла,
+ * поэтому интервал опроса может быть маленьким (mock-controller.shared-snapshot.poll-millis).
+ * Снимки другой системы (поле systemName) пропускаются.
+ */
+@Component
+public class SharedSnapshotFollower {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SharedSnapshotFollower.class);
+    
+    @Autowired
+    private SharedConfigSnapshot sharedConfigSnapshot;
+    
+    @Autowired
+    private ConfigAggregator configAggregator;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private long lastSequence = 0;
+    
+    @Scheduled(fixedDelayString = "${mock-controller.shared-snapshot.poll-millis:5}")
+    @SuppressWarnings("unchecked")
+    public void poll() {
+        if (!sharedConfigSnapshot.isFollower()) {
+            return;
+        }
+        SnapshotMapping.Snapshot snapshot = sharedConfigSnapshot.readIfChanged(lastSequence);
+        if (snapshot == null) {
+            return;
+        }
+        // Снимок считается обработанным даже при ошибке разбора, чтобы не разбирать его повторно
+        lastSequence = snapshot.sequence;
+        try {
+            Map<String, Object> payload = objectMapper.readValue(snapshot.data, Map.class);
+            String version = String.valueOf(payload.get("version"));
+            String systemName = sharedConfigSnapshot.getSystemName();
+            if (!Objects.equals(payload.get("systemName"), systemName)) {
+                logger.warn("Shared snapshot (sequence {}) belongs to system '{}', not '{}', skipping",
+                    snapshot.sequence, payload.get("systemName"), systemName);
+                return;
+            }
+            if (!(payload.get("config") instanceof Map<?, ?> config)) {
+                logger.warn("Shared snapshot (sequence {}) has no config section, skipping", snapshot.sequence);
+                return;
+            }
+            logger.info("Applying config version {} from shared snapshot (sequence {})", version, snapshot.sequence);
+            configAggregator.applyConfig((Map<String, Object>) config, version);
+        } catch (Exception e) {
+            logger.warn("Cannot apply shared snapshot (sequence {}): {}", snapshot.sequence, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.mock.config.shared;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Файл снимка конфига, отображенный в память, с заголовком seqlock.
+ *
+ * Формат файла:
+ * <pre>
+ * 0   long  MAGIC
+ * 8   long  sequence - нечетный во время записи, четный после нее
+ * 16  int   длина данных
+ * 32  byte[] данные снимка
+ * </pre>
+ * Пишет только один процесс (лидер), поэтому запись не синхронизируется между писателями.
+ * Читатель копирует данные и проверяет, что sequence не изменился за время чтения.
+ */
+final class SnapshotMapping implements AutoCloseable {
+    
+    static final long MAGIC = 0x4D4F434B534E4150L; // "MOCKSNAP"
+    
+    private static final int MAGIC_OFFSET = 0;
+    private static final int SEQUENCE_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int DATA_OFFSET = 32;
+    
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    
+    SnapshotMapping(Path path, int capacity) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + (long) capacity);
+        this.capacity = capacity;
+    }
+    
+    /**
+     * Текущее значение sequence; 0 - снимок еще не записывался.
+     */
+    long getSequence() {
+        return (long) LONG.getVolatile(buffer, SEQUENCE_OFFSET);
+    }
+    
+    /**
+     * Записывает новый снимок. Если предыдущая запись была прервана (sequence нечетный),
+     * sequence все равно переходит к следующему четному значению.
+     * @return sequence записанного снимка
+     */
+    long write(byte[] data) {
+        if (data.length > capacity) {
+            throw new IllegalArgumentException("Snapshot of " + data.length + " bytes exceeds capacity " + capacity);
+        }
+        long next = ((long) LONG.getVolatile(buffer, SEQUENCE_OFFSET) & ~1L) + 2;
+        LONG.setVolatile(buffer, MAGIC_OFFSET, MAGIC);
+        LONG.setVolatile(buffer, SEQUENCE_OFFSET, next - 1);
+        // Данные не должны стать видны раньше нечетного sequence
+        VarHandle.storeStoreFence();
+        buffer.put(DATA_OFFSET, data);
+        INT.setVolatile(buffer, LENGTH_OFFSET, data.length);
+        LONG.setVolatile(buffer, SEQUENCE_OFFSET, next);
+        return next;
+    }
+    
+    /**
+     * Читает снимок, если его sequence отличается от lastSequence.
+     * @return данные снимка или null, если снимок не изменился, пишется прямо сейчас или еще не записан
+     */
+    Snapshot readIfChanged(long lastSequence) {
+        long before = (long) LONG.getVolatile(buffer, SEQUENCE_OFFSET);
+        if (before == lastSequence || before == 0 || (before & 1L) != 0
+                || (long) LONG.getVolatile(buffer, MAGIC_OFFSET) != MAGIC) {
+            return null;
+        }
+        int length = (int) INT.getVolatile(buffer, LENGTH_OFFSET);
+        if (length < 0 || length > capacity) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        buffer.get(DATA_OFFSET, data);
+        // Данные должны быть прочитаны до повторной проверки sequence
+        VarHandle.acquireFence();
+        long after = (long) LONG.getVolatile(buffer, SEQUENCE_OFFSET);
+        return before == after ? new Snapshot(before, data) : null;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Согласованная копия снимка.
+     */
+    static final class Snapshot {
+        final long sequence;
+        final byte[] data;
+        
+        Snapshot(long sequence, byte[] data) {
+            this.sequence = sequence;
+            this.data = data;
+        }
+    }
+}
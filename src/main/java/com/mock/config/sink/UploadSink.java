@@ -0,0 +1,224 @@
+package com.mock.config.sink;
+
+import com.mock.config.stats.StatsContributor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Приемник загрузок (mock-controller.upload-sink.enabled): читает тело запроса блоками фиксированного размера,
+ * считает байты и, при необходимости, CRC32C, и отбрасывает данные, не накапливая тело в памяти.
+ *
+ * В servlet-режиме тело читается из InputStream в блоки mock-controller.upload-sink.buffer-kb из общего пула.
+ * В реактивном режиме обрабатываются буферы Reactor Netty (direct) по мере поступления и сразу освобождаются.
+ * Ограничение скорости чтения выдерживается паузами между блоками: пока приемник не читает,
+ * клиента тормозит управление потоком TCP.
+ */
+@Component
+public class UploadSink implements StatsContributor {
+    
+    @Value("${mock-controller.upload-sink.buffer-kb:64}")
+    private int bufferKb;
+    
+    @Value("${mock-controller.upload-sink.max-pooled-buffers:64}")
+    private int maxPooledBuffers;
+    
+    private final ConcurrentLinkedQueue<byte[]> bufferPool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+    
+    private final AtomicInteger activeUploads = new AtomicInteger();
+    private final LongAdder uploadCount = new LongAdder();
+    private final LongAdder totalBytes = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    
+    /**
+     * Читает поток до конца.
+     * @param bytesPerSecond ограничение скорости чтения, 0 - без ограничения
+     */
+    public Result consume(InputStream input, long bytesPerSecond, boolean checksum) throws IOException {
+        Progress progress = start(checksum);
+        byte[] buffer = acquireBuffer();
+        boolean completed = false;
+        try {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                if (progress.crc != null) {
+                    progress.crc.update(buffer, 0, read);
+                }
+                progress.add(read);
+                long pauseNanos = progress.pauseNanos(bytesPerSecond);
+                if (pauseNanos > 0) {
+                    LockSupport.parkNanos(pauseNanos);
+                }
+            }
+            completed = true;
+        } finally {
+            releaseBuffer(buffer);
+            finish(progress, completed);
+        }
+        return progress.toResult();
+    }
+    
+    /**
+     * Обрабатывает буферы тела по мере поступления; каждый буфер освобождается сразу после подсчета.
+     * @param bytesPerSecond ограничение скорости чтения, 0 - без ограничения
+     */
+    public Mono<Result> consume(Flux<DataBuffer> body, long bytesPerSecond, boolean checksum) {
+        return Mono.defer(() -> {
+            Progress progress = start(checksum);
+            return body
+                .concatMap(dataBuffer -> {
+                    try {
+                        if (progress.crc != null) {
+                            try (DataBuffer.ByteBufferIterator buffers = dataBuffer.readableByteBuffers()) {
+                                while (buffers.hasNext()) {
+                                    ByteBuffer buffer = buffers.next();
+                                    progress.crc.update(buffer);
+                                }
+                            }
+                        }
+                        progress.add(dataBuffer.readableByteCount());
+                    } finally {
+                        DataBufferUtils.release(dataBuffer);
+                    }
+                    long pauseNanos = progress.pauseNanos(bytesPerSecond);
+                    return pauseNanos > 0 ? Mono.delay(Duration.ofNanos(pauseNanos)) : Mono.empty();
+                }, 1)
+                .then(Mono.fromSupplier(progress::toResult))
+                .doFinally(signal -> finish(progress, signal == SignalType.ON_COMPLETE));
+        });
+    }
+    
+    private Progress start(boolean checksum) {
+        activeUploads.incrementAndGet();
+        return new Progress(checksum);
+    }
+    
+    private void finish(Progress progress, boolean completed) {
+        activeUploads.decrementAndGet();
+        totalBytes.add(progress.bytes);
+        if (completed) {
+            uploadCount.increment();
+        } else {
+            failedCount.increment();
+        }
+    }
+    
+    private byte[] acquireBuffer() {
+        byte[] buffer = bufferPool.poll();
+        if (buffer != null) {
+            pooledBuffers.decrementAndGet();
+            return buffer;
+        }
+        return new byte[bufferKb * 1024];
+    }
+    
+    private void releaseBuffer(byte[] buffer) {
+        if (pooledBuffers.incrementAndGet() <= maxPooledBuffers) {
+            bufferPool.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "uploadSink";
+    }
+    
+    /**
+     * Возвращает количество активных и завершенных загрузок и прочитанных байт.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("activeUploads", activeUploads.get());
+        status.put("uploadCount", uploadCount.sum());
+        status.put("failedCount", failedCount.sum());
+        status.put("totalBytes", totalBytes.sum());
+        status.put("bufferKb", bufferKb);
+        status.put("pooledBuffers", pooledBuffers.get());
+        return status;
+    }
+    
+    /**
+     * Состояние одной загрузки.
+     */
+    private static final class Progress {
+        final long startNanos = System.nanoTime();
+        final CRC32C crc;
+        long bytes;
+        long chunks;
+        
+        Progress(boolean checksum) {
+            this.crc = checksum ? new CRC32C() : null;
+        }
+        
+        void add(int read) {
+            bytes += read;
+            chunks++;
+        }
+        
+        /**
+         * Пауза, на которую чтение опережает ограничение скорости.
+         */
+        long pauseNanos(long bytesPerSecond) {
+            if (bytesPerSecond <= 0) {
+                return 0;
+            }
+            long expectedNanos = bytes * 1_000_000_000L / bytesPerSecond;
+            return expectedNanos - (System.nanoTime() - startNanos);
+        }
+        
+        Result toResult() {
+            return new Result(bytes, chunks, crc != null ? Long.toHexString(crc.getValue()) : null,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+    
+    /**
+     * Итог загрузки.
+     */
+    public static final class Result {
+        private final long bytes;
+        private final long chunks;
+        private final String checksum;
+        private final long durationMs;
+        
+        Result(long bytes, long chunks, String checksum, long durationMs) {
+            this.bytes = bytes;
+            this.chunks = chunks;
+            this.checksum = checksum;
+            this.durationMs = durationMs;
+        }
+        
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("bytes", bytes);
+            result.put("chunks", chunks);
+            if (checksum != null) {
+                result.put("crc32c", checksum);
+            }
+            result.put("durationMs", durationMs);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.mock.config.source;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mock.config.ConfigAggregator;
+import com.mock.config.MockControllerConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Локальный источник конфига (mock-controller.source: file) для стендов без MockController.
+ *
+ * Читает конфиг в формате ответа GET /api/configs/{systemName}:
+ * <pre>
+ * {"version": "local-1", "config": {"delays": {...}, "intParams": {...}, "rules": {...}}}
+ * </pre>
+ * из файла mock-controller.file-path или из всех файлов *.json каталога (в порядке имен;
+ * секции-объекты файлов объединяются). Каталог отслеживается через WatchService,
+ * и после сохранения файла конфиг применяется тем же путем, что и конфиг из MockController.
+ */
+@Component
+public class FileConfigSource {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FileConfigSource.class);
+    
+    /**
+     * Время, в течение которого события одного сохранения файла объединяются в одну перезагрузку.
+     */
+    private static final long COALESCE_MILLIS = 10;
+    
+    @Autowired
+    private MockControllerConfig mockControllerConfig;
+    
+    @Autowired
+    private ConfigAggregator configAggregator;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private volatile WatchService watchService;
+    private volatile int lastContentHash;
+    private volatile long reloadCount = 0;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!mockControllerConfig.isFileSource()) {
+            return;
+        }
+        Path path = Paths.get(mockControllerConfig.getFilePath()).toAbsolutePath();
+        reload(path);
+        
+        Path directory = Files.isDirectory(path) ? path : path.getParent();
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            logger.warn("Cannot watch config directory {}: {}. Config file changes will not be applied.",
+                directory, e.getMessage());
+            return;
+        }
+        
+        Thread watcher = new Thread(() -> watch(path), "config-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        logger.info("Watching config {} for changes", path);
+    }
+    
+    private void watch(Path path) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean relevant = isRelevant(key, path);
+                key.reset();
+                // Редакторы сохраняют файл несколькими событиями: собираем их в одну перезагрузку
+                WatchKey next;
+                while ((next = watchService.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    relevant |= isRelevant(next, path);
+                    next.reset();
+                }
+                if (relevant) {
+                    reload(path);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Config file watcher stopped");
+        }
+    }
+    
+    private boolean isRelevant(WatchKey key, Path path) {
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                relevant = true;
+            } else if (event.context() instanceof Path changed) {
+                relevant |= Files.isDirectory(path)
+                    ? changed.toString().endsWith(".json")
+                    : changed.equals(path.getFileName());
+            }
+        }
+        return relevant;
+    }
+    
+    /**
+     * Читает конфиг и применяет его, если содержимое изменилось.
+     * Ошибка чтения или разбора оставляет текущий конфиг (файл может быть сохранен не полностью).
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized void reload(Path path) {
+        try {
+            List<Path> files = configFiles(path);
+            if (files.isEmpty()) {
+                logger.warn("No config files found at {}, keeping current configuration", path);
+                return;
+            }
+            
+            List<byte[]> contents = new ArrayList<>();
+            int contentHash = 1;
+            for (Path file : files) {
+                byte[] content = Files.readAllBytes(file);
+                contents.add(content);
+                contentHash = 31 * contentHash + Arrays.hashCode(content);
+            }
+            if (contentHash == lastContentHash && reloadCount > 0) {
+                return;
+            }
+            
+            Map<String, Object> config = new LinkedHashMap<>();
+            List<String> versions = new ArrayList<>();
+            for (int i = 0; i < files.size(); i++) {
+                Map<String, Object> response = objectMapper.readValue(contents.get(i), Map.class);
+                if (!(response.get("config") instanceof Map<?, ?> fileConfig)) {
+                    throw new IOException(files.get(i).getFileName() + " has no 'config' object");
+                }
+                mergeConfig(config, (Map<String, Object>) fileConfig);
+                if (response.get("version") != null) {
+                    versions.add(String.valueOf(response.get("version")));
+                }
+            }
+            String version = versions.isEmpty()
+                ? "file-" + Integer.toHexString(contentHash)
+                : String.join("+", versions);
+            
+            configAggregator.applyConfig(config, version);
+            lastContentHash = contentHash;
+            reloadCount++;
+            logger.info("Config version {} loaded from {}", version, path);
+        } catch (IOException e) {
+            logger.warn("Cannot load config from {}: {}. Keeping current configuration.", path, e.getMessage());
+        }
+    }
+    
+    private List<Path> configFiles(Path path) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.json")) {
+                stream.forEach(files::add);
+            }
+            files.sort(null);
+        } else if (Files.isRegularFile(path)) {
+            files.add(path);
+        }
+        return files;
+    }
+    
+    /**
+     * Объединяет секции конфига: секции-объекты (delays, rules, ...) дополняются, остальные значения заменяются.
+     */
+    @SuppressWarnings("unchecked")
+    private void mergeConfig(Map<String, Object> target, Map<String, Object> source) {
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            if (entry.getValue() instanceof Map<?, ?> section && target.get(entry.getKey()) instanceof Map<?, ?> existing) {
+                Map<String, Object> merged = new LinkedHashMap<>((Map<String, Object>) existing);
+                merged.putAll((Map<String, Object>) section);
+                target.put(entry.getKey(), merged);
+            } else {
+                target.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.mock.config.stats;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Статистика одного эндпоинта заглушки.
+ *
+ * Время ответа записывается в микросекундах в HdrHistogram Recorder: запись из потоков
+ * обработки запросов не блокируется, а гистограмма интервала забирается раз в интервал
+ * (см. EndpointStatsRegistry) и добавляется к накопленной гистограмме.
+ * Гистограммы расширяются по мере роста значений, значения больше часа записываются как час.
+ */
+public class EndpointStats {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile int lastStatus;
+    private volatile long lastDelayNanos;
+    
+    // Изменяются только потоком, снимающим интервалы
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram intervalHistogram;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    int getInFlight() {
+        return inFlight.get();
+    }
+    
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+    
+    void requestFinished(long durationNanos, int status, long delayNanos) {
+        inFlight.decrementAndGet();
+        recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(durationNanos))));
+        lastStatus = status;
+        lastDelayNanos = delayNanos;
+    }
+    
+    /**
+     * Забирает гистограмму прошедшего интервала и публикует новый снимок.
+     */
+    synchronized void rollInterval(long intervalNanos) {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        total.add(intervalHistogram);
+        snapshot = new Snapshot(
+            intervalHistogram.getTotalCount() * 1e9 / Math.max(1, intervalNanos),
+            summary(intervalHistogram),
+            summary(total));
+    }
+    
+    /**
+     * Возвращает текущее состояние эндпоинта для admin API.
+     */
+    public Map<String, Object> toMap() {
+        Snapshot current = snapshot;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rps", Math.round(current.rps * 10) / 10.0);
+        result.put("inFlight", inFlight.get());
+        result.put("lastStatus", lastStatus);
+        result.put("lastDelayMicros", TimeUnit.NANOSECONDS.toMicros(lastDelayNanos));
+        result.put("interval", current.interval);
+        result.put("total", current.total);
+        return result;
+    }
+    
+    private static Map<String, Object> summary(Histogram histogram) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() > 0) {
+            result.put("meanMs", millis(histogram.getMean()));
+            result.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            result.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+            result.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            result.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            result.put("maxMs", millis(histogram.getMaxValue()));
+        }
+        return result;
+    }
+    
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+    
+    /**
+     * Неизменяемый снимок статистики за последний интервал и за все время.
+     */
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(0, Map.of("count", 0L), Map.of("count", 0L));
+        
+        final double rps;
+        final Map<String, Object> interval;
+        final Map<String, Object> total;
+        
+        Snapshot(double rps, Map<String, Object> interval, Map<String, Object> total) {
+            this.rps = rps;
+            this.interval = interval;
+            this.total = total;
+        }
+    }
+}
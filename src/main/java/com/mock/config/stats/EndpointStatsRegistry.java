@@ -0,0 +1,89 @@
+package com.mock.config.stats;
+
+import com.mock.config.ConfigAggregator;
+import com.mock.config.StubResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Статистика эндпоинтов заглушки: RPS, количество запросов в обработке и перцентили времени ответа.
+ * Интервал статистики задается свойством mock-controller.stats-interval-millis (по умолчанию 1 секунда).
+ */
+@Component
+public class EndpointStatsRegistry {
+    
+    @Autowired
+    private ConfigAggregator configAggregator;
+    
+    @Autowired
+    private ObjectProvider<StatsContributor> statsContributors;
+    
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    
+    private volatile long lastRollNanos = System.nanoTime();
+    
+    /**
+     * Отмечает начало обработки запроса.
+     * @return время начала для requestFinished
+     */
+    public long requestStarted(String endpoint) {
+        statsFor(endpoint).requestStarted();
+        return System.nanoTime();
+    }
+    
+    /**
+     * Отмечает окончание обработки запроса и записывает время ответа.
+     * response может быть null, если запрос завершился ошибкой.
+     */
+    public void requestFinished(String endpoint, long startNanos, StubResponse response) {
+        statsFor(endpoint).requestFinished(System.nanoTime() - startNanos,
+            response != null ? response.getStatus() : 500,
+            response != null ? response.getDelayNanos() : 0);
+    }
+    
+    /**
+     * Количество запросов эндпоинта в обработке.
+     */
+    public int inFlight(String endpoint) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        return endpointStats != null ? endpointStats.getInFlight() : 0;
+    }
+    
+    private EndpointStats statsFor(String endpoint) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        return endpointStats != null ? endpointStats : stats.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+    
+    @Scheduled(fixedRateString = "${mock-controller.stats-interval-millis:1000}")
+    public void rollInterval() {
+        long now = System.nanoTime();
+        long intervalNanos = now - lastRollNanos;
+        lastRollNanos = now;
+        for (EndpointStats endpointStats : stats.values()) {
+            endpointStats.rollInterval(intervalNanos);
+        }
+    }
+    
+    /**
+     * Возвращает версию конфига, секции компонентов (StatsContributor) и статистику всех эндпоинтов, отсортированную по имени.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> endpoints = new TreeMap<>();
+        for (EndpointStats endpointStats : stats.values()) {
+            endpoints.put(endpointStats.getEndpoint(), endpointStats.toMap());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("configVersion", configAggregator.getVersion());
+        statsContributors.orderedStream()
+            .forEach(contributor -> result.put(contributor.getStatsKey(), contributor.getStatus()));
+        result.put("endpoints", endpoints);
+        return result;
+    }
+}
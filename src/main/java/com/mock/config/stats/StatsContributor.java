@@ -0,0 +1,20 @@
+package com.mock.config.stats;
+
+import java.util.Map;
+
+/**
+ * Компонент, который выводит свое состояние в ответе GET /config/stats.
+ * EndpointStatsRegistry находит все такие компоненты и не зависит от них напрямую.
+ */
+public interface StatsContributor {
+    
+    /**
+     * Имя секции в ответе /config/stats (например, "admission").
+     */
+    String getStatsKey();
+    
+    /**
+     * Текущее состояние компонента.
+     */
+    Map<String, Object> getStatus();
+}
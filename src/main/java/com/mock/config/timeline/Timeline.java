@@ -0,0 +1,98 @@
+package com.mock.config.timeline;
+
+import java.util.Map;
+
+/**
+ * Таймлайн одного поля: значение поля вычисляется локально как функция времени,
+ * прошедшего с начала таймлайна.
+ *
+ * Типы:
+ * <ul>
+ *   <li>ramp - линейное изменение числового значения от from до to за durationSeconds,
+ *       после окончания удерживается значение to</li>
+ *   <li>pulse - значение value в течение activeSeconds в начале каждого периода periodSeconds
+ *       (со сдвигом offsetSeconds), в остальное время - базовое значение поля</li>
+ * </ul>
+ */
+public class Timeline {
+    
+    public enum Type {
+        RAMP, PULSE
+    }
+    
+    private final String fieldName;
+    private final Type type;
+    private final Map<?, ?> spec;
+    private final String baseValue;
+    private final long startNanos;
+    
+    // ramp
+    private final double from;
+    private final double to;
+    private final long durationNanos;
+    
+    // pulse
+    private final String value;
+    private final long periodNanos;
+    private final long activeNanos;
+    private final long offsetNanos;
+    
+    Timeline(String fieldName, Type type, Map<?, ?> spec, String baseValue, long startNanos,
+             double from, double to, long durationNanos,
+             String value, long periodNanos, long activeNanos, long offsetNanos) {
+        this.fieldName = fieldName;
+        this.type = type;
+        this.spec = spec;
+        this.baseValue = baseValue;
+        this.startNanos = startNanos;
+        this.from = from;
+        this.to = to;
+        this.durationNanos = durationNanos;
+        this.value = value;
+        this.periodNanos = periodNanos;
+        this.activeNanos = activeNanos;
+        this.offsetNanos = offsetNanos;
+    }
+    
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Исходное описание таймлайна из конфига (для сравнения версий).
+     */
+    public Map<?, ?> getSpec() {
+        return spec;
+    }
+    
+    /**
+     * Значение поля без таймлайна: восстанавливается, когда таймлайн удален из конфига.
+     */
+    public String getBaseValue() {
+        return baseValue;
+    }
+    
+    public long getStartNanos() {
+        return startNanos;
+    }
+    
+    /**
+     * Возвращает значение поля в момент nowNanos (System.nanoTime) или null,
+     * если значение не определено (например, у pulse нет базового значения).
+     */
+    public String valueAt(long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - startNanos);
+        if (type == Type.RAMP) {
+            double progress = durationNanos > 0 ? Math.min(1.0, (double) elapsed / durationNanos) : 1.0;
+            return String.valueOf(Math.round(from + (to - from) * progress));
+        }
+        if (elapsed >= offsetNanos && (elapsed - offsetNanos) % periodNanos < activeNanos) {
+            return value;
+        }
+        return baseValue;
+    }
+}
@@ -0,0 +1,222 @@
+package com.mock.config.timeline;
+
+import com.mock.config.ConfigAggregator;
+import com.mock.config.ConfigApplyListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таймлайны параметров, полученные из MockController в секции "timelines".
+ *
+ * Формат секции:
+ * <pre>
+ * "timelines": {
+ *   "delayHelloWorld": {"type": "ramp", "from": 100, "to": 2000, "durationSeconds": 600},
+ *   "intHelloStatusCode": {"type": "pulse", "value": 503, "periodSeconds": 300, "activeSeconds": 30}
+ * }
+ * </pre>
+ * Значения вычисляются локально на каждом тике (mock-controller.timeline-tick-millis) и применяются
+ * к полям сервисов только при изменении, без запросов к MockController.
+ * Таймлайн с неизменным описанием в новой версии конфига продолжается, а не начинается заново.
+ *
+ * Тики выполняются в собственном потоке: общий пул @Scheduled занят блокирующими запросами
+ * checkUpdate и healthcheck (таймауты до 10 с). Значения тика записываются под блокировкой
+ * ConfigAggregator (порядок: агрегатор, затем таймлайны, как в applyConfig), поэтому тик,
+ * вычисленный по старой версии, не перезаписывает поля, примененные новой версией конфига.
+ */
+@Component
+public class TimelineEngine implements ConfigApplyListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TimelineEngine.class);
+    
+    public static final String CONFIG_KEY = "timelines";
+    
+    @Autowired
+    private ConfigAggregator configAggregator;
+    
+    @Value("${mock-controller.timeline-tick-millis:100}")
+    private long tickMillis;
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timeline-tick");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private volatile Map<String, Timeline> timelines = Collections.emptyMap();
+    
+    /**
+     * Последние примененные значения полей, чтобы не применять одно и то же значение на каждом тике.
+     */
+    private final Map<String, String> appliedValues = new HashMap<>();
+    
+    @Override
+    public synchronized void onConfigApplied(Map<String, Object> config, String version) {
+        Object timelinesObj = config.get(CONFIG_KEY);
+        Map<String, Timeline> previous = timelines;
+        Map<String, Timeline> compiled = new LinkedHashMap<>();
+        
+        if (timelinesObj instanceof Map<?, ?> timelineMap) {
+            long now = System.nanoTime();
+            for (Map.Entry<?, ?> entry : timelineMap.entrySet()) {
+                String fieldName = String.valueOf(entry.getKey());
+                Timeline inherited = isSetByConfig(config, fieldName) ? null : previous.get(fieldName);
+                Timeline timeline = parseTimeline(fieldName, entry.getValue(), inherited, previous.get(fieldName), now);
+                if (timeline != null) {
+                    compiled.put(fieldName, timeline);
+                }
+            }
+        } else if (timelinesObj != null) {
+            logger.warn("Section '{}' must be an object keyed by field name, got: {}", CONFIG_KEY, timelinesObj);
+        }
+        
+        // Поля, таймлайны которых удалены, возвращаются к базовому значению,
+        // если новая версия конфига не задала для них значение сама
+        Map<String, Object> restored = new HashMap<>();
+        for (Timeline removed : previous.values()) {
+            String fieldName = removed.getFieldName();
+            if (!compiled.containsKey(fieldName) && removed.getBaseValue() != null && !isSetByConfig(config, fieldName)) {
+                restored.put(fieldName, removed.getBaseValue());
+            }
+        }
+        if (!restored.isEmpty()) {
+            configAggregator.applyLocalValues(restored);
+        }
+        
+        timelines = compiled;
+        // Конфиг только что записал в поля свои значения, поэтому значения таймлайнов применяются заново
+        appliedValues.clear();
+        logger.info("Loaded {} timelines, version: {}", compiled.size(), version);
+        tick();
+    }
+    
+    /**
+     * Разбирает таймлайн поля. Таймлайн с тем же описанием, что и в предыдущей версии,
+     * сохраняет время начала. Базовое значение берется из описания (baseValue), из предыдущего
+     * таймлайна поля (inherited, если конфиг не задал значение поля) или из текущего значения поля.
+     */
+    private Timeline parseTimeline(String fieldName, Object timelineObj, Timeline inherited, Timeline previous, long now) {
+        if (!(timelineObj instanceof Map<?, ?> spec)) {
+            logger.warn("Skipping invalid timeline for {}: expected object, got {}", fieldName, timelineObj);
+            return null;
+        }
+        try {
+            Timeline.Type type = Timeline.Type.valueOf(String.valueOf(spec.get("type")).trim().toUpperCase());
+            long startNanos = previous != null && Objects.equals(previous.getSpec(), spec) ? previous.getStartNanos() : now;
+            String baseValue = spec.get("baseValue") != null ? String.valueOf(spec.get("baseValue"))
+                : inherited != null ? inherited.getBaseValue() : configAggregator.getFieldValue(fieldName);
+            
+            if (type == Timeline.Type.RAMP) {
+                double from = number(spec, "from");
+                double to = number(spec, "to");
+                long durationNanos = secondsToNanos(number(spec, "durationSeconds"));
+                return new Timeline(fieldName, type, spec, baseValue, startNanos,
+                    from, to, durationNanos, null, 0, 0, 0);
+            }
+            
+            if (spec.get("value") == null) {
+                throw new IllegalArgumentException("'value' is required");
+            }
+            long periodNanos = secondsToNanos(number(spec, "periodSeconds"));
+            long activeNanos = secondsToNanos(number(spec, "activeSeconds"));
+            long offsetNanos = spec.get("offsetSeconds") != null ? secondsToNanos(number(spec, "offsetSeconds")) : 0;
+            if (periodNanos <= 0 || activeNanos < 0 || offsetNanos < 0) {
+                throw new IllegalArgumentException("periodSeconds must be positive, activeSeconds and offsetSeconds non-negative");
+            }
+            return new Timeline(fieldName, type, spec, baseValue, startNanos,
+                0, 0, 0, String.valueOf(spec.get("value")), periodNanos, activeNanos, offsetNanos);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid timeline for {}: {}", fieldName, e.getMessage());
+            return null;
+        }
+    }
+    
+    private double number(Map<?, ?> spec, String key) {
+        Object value = spec.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("'" + key + "' is required");
+        }
+        return Double.parseDouble(String.valueOf(value).trim());
+    }
+    
+    private long secondsToNanos(double seconds) {
+        return Math.round(seconds * 1_000_000_000L);
+    }
+    
+    private boolean isSetByConfig(Map<String, Object> config, String fieldName) {
+        for (String section : new String[]{"delays", "intParams", "stringParams", "booleanVariables"}) {
+            if (config.get(section) instanceof Map<?, ?> values && values.containsKey(fieldName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::scheduledTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+    
+    private void scheduledTick() {
+        Map<String, Timeline> current = timelines;
+        if (current.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (configAggregator) {
+                synchronized (this) {
+                    // Пока тик ждал блокировку, могла примениться новая версия конфига: она уже выполнила тик сама
+                    if (timelines == current) {
+                        tick();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Исключение остановило бы периодическую задачу
+            logger.warn("Timeline tick failed: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Вычисляет значения таймлайнов и применяет изменившиеся.
+     * Вызывается под блокировками ConfigAggregator и таймлайнов.
+     */
+    private void tick() {
+        Map<String, Timeline> current = timelines;
+        if (current.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        Map<String, Object> changed = new HashMap<>();
+        for (Timeline timeline : current.values()) {
+            String value = timeline.valueAt(now);
+            if (value != null && !value.equals(appliedValues.get(timeline.getFieldName()))) {
+                changed.put(timeline.getFieldName(), value);
+                appliedValues.put(timeline.getFieldName(), value);
+            }
+        }
+        if (!changed.isEmpty()) {
+            configAggregator.applyLocalValues(changed);
+            logger.debug("Timeline values applied: {}", changed);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.mock.config.warmup;
+
+import com.mock.config.ConfigAggregator;
+import com.mock.config.StubRequest;
+import com.mock.config.stats.StatsContributor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Прогрев JIT перед приемом трафика (mock-controller.warmup.enabled).
+ *
+ * Выполняется последним слушателем ApplicationReadyEvent, поэтому Spring Boot переводит
+ * readiness в ACCEPTING_TRAFFIC только после окончания прогрева. Прогрев раундами вызывает
+ * эндпоинты заглушки через HTTP с заголовком X-Mock-Warmup и путь применения конфига, пока JIT не перестанет компилировать (время компиляции за раунд
+ * не больше settled-compile-percent от длительности раунда два раунда подряд) или не истечет max-seconds.
+ *
+ * Запрос прогрева проходит весь путь обработки (сценарии, правила, модели нагрузки, лимиты,
+ * обратные вызовы), кроме выдержки задержки; статистика записывается под ключом "warmup:" + эндпоинт,
+ * чтобы не смешиваться со статистикой трафика.
+ */
+@Component
+public class WarmupStage implements StatsContributor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WarmupStage.class);
+    
+    public static final String WARMUP_HEADER = "X-Mock-Warmup";
+    
+    public static final String STATS_PREFIX = "warmup:";
+    
+    private static final int SETTLED_ROUNDS = 2;
+    
+    @Value("${mock-controller.warmup.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${mock-controller.warmup.max-seconds:30}")
+    private long maxSeconds;
+    
+    @Value("${mock-controller.warmup.requests-per-round:200}")
+    private int requestsPerRound;
+    
+    @Value("${mock-controller.warmup.settled-compile-percent:5}")
+    private double settledCompilePercent;
+    
+    /**
+     * Пути для прогрева; если не заданы, берутся эндпоинты заглушки из Spring MVC.
+     */
+    @Value("${mock-controller.warmup.paths:}")
+    private List<String> paths;
+    
+    @Autowired
+    private ApplicationContext applicationContext;
+    
+    @Autowired
+    private ConfigAggregator configAggregator;
+    
+    private volatile boolean running = false;
+    private volatile String state = "pending";
+    private volatile int rounds = 0;
+    private volatile long requestCount = 0;
+    private volatile long durationMillis = 0;
+    private volatile long lastRoundCompileMillis = -1;
+    
+    /**
+     * true, если запрос отправлен прогревом: такой запрос обрабатывается без выдержки задержки.
+     */
+    public boolean isWarmupRequest(StubRequest request) {
+        return running && request.getHeader(WARMUP_HEADER) != null;
+    }
+    
+    /**
+     * Ключ статистики запроса: запросы прогрева учитываются отдельно от трафика эндпоинта.
+     */
+    public String statsKey(StubRequest request, boolean warmup) {
+        return warmup ? STATS_PREFIX + request.getEndpoint() : request.getEndpoint();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        String port = applicationContext.getEnvironment().getProperty("local.server.port");
+        if (port == null) {
+            logger.warn("Server port is unknown, skipping warm-up");
+            return;
+        }
+        List<HttpRequest> requests = buildRequests("http://127.0.0.1:" + port);
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        boolean compileTimeSupported = jit != null && jit.isCompilationTimeMonitoringSupported();
+        
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxSeconds);
+        running = true;
+        state = "running";
+        logger.info("Warm-up started: {} endpoints, {} requests per round", requests.size(), requestsPerRound);
+        try {
+            int settledRounds = 0;
+            while (System.nanoTime() < deadline && settledRounds < SETTLED_ROUNDS) {
+                long roundStart = System.nanoTime();
+                long compileBefore = compileTimeSupported ? jit.getTotalCompilationTime() : 0;
+                for (int i = 0; i < requestsPerRound; i++) {
+                    for (HttpRequest request : requests) {
+                        client.send(request, HttpResponse.BodyHandlers.discarding());
+                        requestCount++;
+                    }
+                }
+                configAggregator.reapplyCurrentValues();
+                rounds++;
+                if (!compileTimeSupported) {
+                    continue;
+                }
+                lastRoundCompileMillis = jit.getTotalCompilationTime() - compileBefore;
+                long roundMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - roundStart);
+                settledRounds = lastRoundCompileMillis * 100.0 <= settledCompilePercent * roundMillis ? settledRounds + 1 : 0;
+            }
+            state = settledRounds >= SETTLED_ROUNDS ? "settled" : "timeout";
+        } catch (IOException e) {
+            state = "failed";
+            logger.warn("Warm-up request failed: {}. Accepting traffic without full warm-up.", e.getMessage());
+        } catch (InterruptedException e) {
+            state = "failed";
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        logger.info("Warm-up finished ({}): {} rounds, {} requests in {} ms, last round compile time {} ms",
+            state, rounds, requestCount, durationMillis, lastRoundCompileMillis);
+    }
+    
+    private List<HttpRequest> buildRequests(String baseUrl) {
+        List<HttpRequest> requests = new ArrayList<>();
+        if (paths != null && !paths.isEmpty()) {
+            for (String path : paths) {
+                requests.add(request(baseUrl + path.trim(), false));
+            }
+            return requests;
+        }
+        if (!applicationContext.containsBean("requestMappingHandlerMapping")) {
+            logger.warn("Spring MVC mappings are not available, set mock-controller.warmup.paths to warm up endpoints");
+            return requests;
+        }
+        RequestMappingHandlerMapping mapping = applicationContext.getBean("requestMappingHandlerMapping",
+            RequestMappingHandlerMapping.class);
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : mapping.getHandlerMethods().entrySet()) {
+            if (!entry.getValue().getBeanType().getName().startsWith("com.mock.")) {
+                continue;
+            }
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+            boolean post = !methods.isEmpty() && !methods.contains(RequestMethod.GET);
+            for (String pattern : entry.getKey().getPatternValues()) {
+                // Служебные эндпоинты (/config/status, /user/config/status, ...) не прогреваются
+                if (pattern.contains("config/") || pattern.startsWith("/config")) {
+                    continue;
+                }
+                String path = samplePath(pattern);
+                if (path != null) {
+                    requests.add(request(baseUrl + path, post));
+                } else {
+                    logger.debug("Skipping warm-up of {}: no sample value for its path variables", pattern);
+                }
+            }
+        }
+        return requests;
+    }
+    
+    /**
+     * Подставляет в шаблон пути значения переменных: "warmup" для переменной без регулярного выражения,
+     * первую альтернативу выражения, если она литерал ({dataset:users|orders} -> users), иначе само "warmup",
+     * если оно подходит под выражение. Возвращает null, если подходящего значения нет.
+     */
+    private static String samplePath(String pattern) {
+        StringBuilder path = new StringBuilder();
+        int position = 0;
+        while (position < pattern.length()) {
+            int open = pattern.indexOf('{', position);
+            if (open < 0) {
+                path.append(pattern, position, pattern.length());
+                break;
+            }
+            // Выражение переменной может само содержать фигурные скобки ({id:\d{3}})
+            int depth = 0;
+            int close = -1;
+            for (int i = open; i < pattern.length() && close < 0; i++) {
+                char c = pattern.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}' && --depth == 0) {
+                    close = i;
+                }
+            }
+            if (close < 0) {
+                return null;
+            }
+            String variable = pattern.substring(open + 1, close);
+            int colon = variable.indexOf(':');
+            String value = colon < 0 ? "warmup" : sampleValue(variable.substring(colon + 1));
+            if (value == null) {
+                return null;
+            }
+            path.append(pattern, position, open).append(value);
+            position = close + 1;
+        }
+        return path.toString();
+    }
+    
+    private static String sampleValue(String regex) {
+        String firstAlternative = regex.split("\\|", -1)[0];
+        if (firstAlternative.matches("[A-Za-z0-9_.~-]+")) {
+            return firstAlternative;
+        }
+        try {
+            return "warmup".matches(regex) ? "warmup" : null;
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+    
+    private HttpRequest request(String url, boolean post) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(10))
+            .header(WARMUP_HEADER, "true");
+        if (post) {
+            builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString("{}"));
+        }
+        return builder.build();
+    }
+    
+    @Override
+    public String getStatsKey() {
+        return "warmup";
+    }
+    
+    /**
+     * Возвращает состояние и результат прогрева.
+     */
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("state", enabled ? state : "disabled");
+        status.put("rounds", rounds);
+        status.put("requestCount", requestCount);
+        status.put("durationMillis", durationMillis);
+        status.put("lastRoundCompileMillis", lastRoundCompileMillis);
+        return status;
+    }
+}
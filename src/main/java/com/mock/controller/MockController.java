@@ -1,8 +1,13 @@
 package com.mock.controller;
 
 import com.mock.config.ConfigAggregator;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponder;
+import com.mock.config.stats.EndpointStatsRegistry;
 import com.mock.service.MockService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -10,30 +15,48 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MockController {
     
     private final MockService mockService;
     private final ConfigAggregator configAggregator;
+    private final StubResponder stubResponder;
+    private final EndpointStatsRegistry endpointStatsRegistry;
     
     @Autowired
-    public MockController(MockService mockService, ConfigAggregator configAggregator) {
+    public MockController(MockService mockService, ConfigAggregator configAggregator, StubResponder stubResponder,
+                          EndpointStatsRegistry endpointStatsRegistry) {
         this.mockService = mockService;
         this.configAggregator = configAggregator;
+        this.stubResponder = stubResponder;
+        this.endpointStatsRegistry = endpointStatsRegistry;
     }
     
     @GetMapping("/hello")
-    public ResponseEntity<Map<String, String>> hello() {
-        return mockService.getHelloResponse();
+    public Object hello(HttpServletRequest httpRequest) {
+        StubRequest request = StubRequest.fromServletRequest("hello", httpRequest, null);
+        return stubResponder.respond(request, mockService.getHelloResponse(request));
     }
     
     @GetMapping("/health")
-    public ResponseEntity<Map<String, String>> health() {
-        return mockService.getHealthResponse();
+    public Object health(HttpServletRequest httpRequest) {
+        StubRequest request = StubRequest.fromServletRequest("health", httpRequest, null);
+        return stubResponder.respond(request, mockService.getHealthResponse(request));
+    }
+    
+    @GetMapping("/cache/{key}")
+    public Object cacheLookup(HttpServletRequest httpRequest) {
+        StubRequest request = StubRequest.fromServletRequest("cacheLookup", httpRequest, null);
+        return stubResponder.respond(request, mockService.getCacheLookupResponse(request));
     }
     
     @GetMapping("/config/status")
     public ResponseEntity<Map<String, Object>> getConfigStatus() {
         return ResponseEntity.ok(configAggregator.getCheckUpdateStatus());
     }
+    
+    @GetMapping("/config/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(endpointStatsRegistry.getStats());
+    }
 }
-
@@ -0,0 +1,107 @@
+package com.mock.controller;
+
+import com.mock.config.ConfigAggregator;
+import com.mock.config.StubRequest;
+import com.mock.config.dataset.SyntheticDataset;
+import com.mock.config.sink.UploadSink;
+import com.mock.config.reactive.ReactiveStubResponder;
+import com.mock.config.stats.EndpointStatsRegistry;
+import com.mock.service.MockService;
+import com.mock.service.UploadService;
+import com.mock.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.PUT;
+
+/**
+ * Маршруты эндпоинтов заглушки для реактивного режима (профиль reactive).
+ * Повторяют MockController и UserController и используют те же сервисы,
+ * поэтому параметры из MockController применяются одинаково в обоих режимах.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStubRoutes {
+    
+    private static final ParameterizedTypeReference<Map<String, Object>> BODY_TYPE =
+        new ParameterizedTypeReference<>() {};
+    
+    @Bean
+    public RouterFunction<ServerResponse> stubRoutes(MockService mockService,
+                                                     UserService userService,
+                                                     ConfigAggregator configAggregator,
+                                                     ReactiveStubResponder responder,
+                                                     EndpointStatsRegistry endpointStatsRegistry) {
+        return RouterFunctions.route()
+            .GET("/hello", request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("hello", request, null);
+                return responder.respond(stubRequest, mockService.getHelloResponse(stubRequest));
+            })
+            .GET("/health", request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("health", request, null);
+                return responder.respond(stubRequest, mockService.getHealthResponse(stubRequest));
+            })
+            .GET("/cache/{key}", request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("cacheLookup", request, null);
+                return responder.respond(stubRequest, mockService.getCacheLookupResponse(stubRequest));
+            })
+            .route(GET("/user/login").or(POST("/user/login")), request -> request.bodyToMono(BODY_TYPE)
+                .defaultIfEmpty(Collections.emptyMap())
+                .flatMap(body -> {
+                    StubRequest stubRequest = ReactiveStubResponder.toStubRequest("userLogin", request, body);
+                    return responder.respond(stubRequest, userService.getUserLoginResponse(stubRequest));
+                }))
+            .route(GET("/user/logout").or(POST("/user/logout")), request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("userLogout", request, null);
+                return responder.respond(stubRequest, userService.getUserLogoutResponse(stubRequest));
+            })
+            .GET("/user/data", request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("dataFetch", request, null);
+                return responder.respond(stubRequest, userService.getDataFetchResponse(stubRequest));
+            })
+            .GET("/user/profile/{id}", request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("userProfile", request, null);
+                return responder.respond(stubRequest, userService.getUserProfileResponse(stubRequest));
+            })
+            .GET("/user/dataset/{dataset:users|orders}", request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("dataset", request, null);
+                SyntheticDataset dataset = SyntheticDataset.fromName(request.pathVariable("dataset"));
+                return responder.respond(stubRequest, userService.getDatasetResponse(dataset, stubRequest));
+            })
+            .GET("/config/status", request -> ServerResponse.ok().bodyValue(configAggregator.getCheckUpdateStatus()))
+            .GET("/user/config/status", request -> ServerResponse.ok().bodyValue(configAggregator.getCheckUpdateStatus()))
+            .GET("/config/stats", request -> ServerResponse.ok().bodyValue(endpointStatsRegistry.getStats()))
+            .build();
+    }
+    
+    /**
+     * Приемник загрузок: буферы тела обрабатываются по мере поступления и освобождаются.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "mock-controller.upload-sink.enabled", havingValue = "true")
+    public RouterFunction<ServerResponse> uploadSinkRoutes(UploadService uploadService,
+                                                           UploadSink uploadSink,
+                                                           ReactiveStubResponder responder) {
+        return RouterFunctions.route()
+            .route(POST("/upload/sink").or(PUT("/upload/sink")), request -> {
+                StubRequest stubRequest = ReactiveStubResponder.toStubRequest("uploadSink", request, null);
+                return responder.respondAfterBody(stubRequest, uploadSink
+                    .consume(request.body(BodyExtractors.toDataBuffers()),
+                        uploadService.getUploadReadBytesPerSecond(), uploadService.isUploadChecksum())
+                    .map(result -> uploadService.getUploadResponse(stubRequest, result)));
+            })
+            .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.mock.controller;
+
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponder;
+import com.mock.config.sink.UploadSink;
+import com.mock.service.UploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Эндпоинт приемника загрузок: тело читается из InputStream запроса и отбрасывается, без привязки к объекту.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "mock-controller.upload-sink.enabled", havingValue = "true")
+public class UploadSinkController {
+    
+    private final UploadService uploadService;
+    private final UploadSink uploadSink;
+    private final StubResponder stubResponder;
+    
+    @Autowired
+    public UploadSinkController(UploadService uploadService, UploadSink uploadSink, StubResponder stubResponder) {
+        this.uploadService = uploadService;
+        this.uploadSink = uploadSink;
+        this.stubResponder = stubResponder;
+    }
+    
+    @RequestMapping(value = "/upload/sink", method = {RequestMethod.POST, RequestMethod.PUT})
+    public Object uploadSink(HttpServletRequest httpRequest) throws IOException {
+        StubRequest request = StubRequest.fromServletRequest("uploadSink", httpRequest, null);
+        return stubResponder.respondAfterBody(request, () -> {
+            UploadSink.Result result = uploadSink.consume(httpRequest.getInputStream(),
+                uploadService.getUploadReadBytesPerSecond(), uploadService.isUploadChecksum());
+            return uploadService.getUploadResponse(request, result);
+        });
+    }
+}
@@ -1,34 +1,67 @@
 package com.mock.controller;
 
 import com.mock.config.ConfigAggregator;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponder;
+import com.mock.config.dataset.SyntheticDataset;
 import com.mock.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class UserController {
     
     private final UserService userService;
     private final ConfigAggregator configAggregator;
+    private final StubResponder stubResponder;
     
     @Autowired
-    public UserController(UserService userService, ConfigAggregator configAggregator) {
+    public UserController(UserService userService, ConfigAggregator configAggregator, StubResponder stubResponder) {
         this.userService = userService;
         this.configAggregator = configAggregator;
+        this.stubResponder = stubResponder;
     }
     
-    @GetMapping("/user/login")
-    public ResponseEntity<Map<String, String>> userLogin() {
-        return userService.getUserLoginResponse();
+    @RequestMapping(value = "/user/login", method = {RequestMethod.GET, RequestMethod.POST})
+    public Object userLogin(HttpServletRequest httpRequest,
+                                       @RequestBody(required = false) Map<String, Object> body) {
+        StubRequest request = StubRequest.fromServletRequest("userLogin", httpRequest, body);
+        return stubResponder.respond(request, userService.getUserLoginResponse(request));
+    }
+    
+    @RequestMapping(value = "/user/logout", method = {RequestMethod.GET, RequestMethod.POST})
+    public Object userLogout(HttpServletRequest httpRequest) {
+        StubRequest request = StubRequest.fromServletRequest("userLogout", httpRequest, null);
+        return stubResponder.respond(request, userService.getUserLogoutResponse(request));
     }
     
     @GetMapping("/user/data")
-    public ResponseEntity<Map<String, String>> userData() {
-        return userService.getDataFetchResponse();
+    public Object userData(HttpServletRequest httpRequest) {
+        StubRequest request = StubRequest.fromServletRequest("dataFetch", httpRequest, null);
+        return stubResponder.respond(request, userService.getDataFetchResponse(request));
+    }
+    
+    @GetMapping("/user/profile/{id}")
+    public Object userProfile(HttpServletRequest httpRequest) {
+        StubRequest request = StubRequest.fromServletRequest("userProfile", httpRequest, null);
+        return stubResponder.respond(request, userService.getUserProfileResponse(request));
+    }
+    
+    @GetMapping("/user/dataset/{dataset:users|orders}")
+    public Object dataset(HttpServletRequest httpRequest, @PathVariable("dataset") String dataset) {
+        StubRequest request = StubRequest.fromServletRequest("dataset", httpRequest, null);
+        return stubResponder.respond(request, userService.getDatasetResponse(SyntheticDataset.fromName(dataset), request));
     }
     
     @GetMapping("/user/config/status")
@@ -36,4 +69,3 @@ public class UserController {
         return ResponseEntity.ok(configAggregator.getCheckUpdateStatus());
     }
 }
-
@@ -1,14 +1,17 @@
 package com.mock.service;
 
 import com.mock.config.MockControllerClientBase;
-import org.springframework.http.ResponseEntity;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import com.mock.config.compression.StaticBodySource;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class MockService extends MockControllerClientBase {
+public class MockService extends MockControllerClientBase implements StaticBodySource {
     
     // Параметры для Hello World эндпоинта
     private long delayHelloWorld = 1000; // задержка в миллисекундах
@@ -19,13 +22,18 @@ public class MockService extends MockControllerClientBase {
     private long delayHello = 111; // задержка в миллисекундах
     @SuppressWarnings("unused")
     private String stringHell = "Hello!";
-
+    
     // Параметры для Health Check эндпоинта
     private long delayHealthCheck = 500; // задержка в миллисекундах
     private String stringHealthCheckRs = "OK";
     private int intHealthStatusCode = 200; // HTTP статус код
     private boolean isHealthTrue = true; // Boolean параметр для health
     
+    // Параметры для эндпоинта чтения из кеша (задержка в микросекундах)
+    private long delayCacheLookupUs = 250; // задержка в микросекундах
+    private String stringCacheLookupRs = "HIT";
+    private int intCacheLookupStatusCode = 200;
+    
     // Примеры переменных с большой буквы
     @SuppressWarnings("unused")
     private long DELAY_ALL_RESPONSE = 2000; // задержка с большой буквы
@@ -36,30 +44,58 @@ public class MockService extends MockControllerClientBase {
     @SuppressWarnings("unused")
     private boolean IS_ENABLED = false; // boolean с большой буквы
     
-    public ResponseEntity<Map<String, String>> getHelloResponse() {
-        try {
-            Thread.sleep(delayHelloWorld);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        Map<String, String> response = new HashMap<>();
+    // Тела по умолчанию пересобираются только при изменении полей
+    private volatile Map<String, Object> helloBody;
+    private volatile Map<String, Object> healthBody;
+    
+    public MockService() {
+        onFieldsApplied();
+    }
+    
+    @Override
+    protected void onFieldsApplied() {
+        helloBody = reuseBody(helloBody, buildHelloBody());
+        healthBody = reuseBody(healthBody, buildHealthBody());
+    }
+    
+    public StubResponse getHelloResponse(StubRequest request) {
+        return new StubResponse(intHelloStatusCode, delayHelloWorld, helloBody);
+    }
+    
+    public StubResponse getHealthResponse(StubRequest request) {
+        return new StubResponse(intHealthStatusCode, delayHealthCheck, healthBody);
+    }
+    
+    private Map<String, Object> buildHelloBody() {
+        Map<String, Object> response = new HashMap<>();
         response.put("message", stringHelloWorldRs);
         response.put("responseValue", String.valueOf(intResponseValue));
-        return ResponseEntity.status(intHelloStatusCode).body(response);
+        return response;
     }
     
-    public ResponseEntity<Map<String, String>> getHealthResponse() {
-        try {
-            Thread.sleep(delayHealthCheck);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        Map<String, String> response = new HashMap<>();
+    private Map<String, Object> buildHealthBody() {
+        Map<String, Object> response = new HashMap<>();
         response.put("status", stringHealthCheckRs);
         response.put("isHealthy", String.valueOf(isHealthTrue));
-        return ResponseEntity.status(intHealthStatusCode).body(response);
+        return response;
+    }
+    
+    /**
+     * Тело cacheLookup содержит ключ из запроса, поэтому не включается.
+     */
+    @Override
+    public Map<String, Map<String, Object>> getStaticBodies() {
+        Map<String, Map<String, Object>> bodies = new HashMap<>();
+        bodies.put("hello", helloBody);
+        bodies.put("health", healthBody);
+        return bodies;
+    }
+    
+    public StubResponse getCacheLookupResponse(StubRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("key", request.getPathVariable("key"));
+        response.put("result", stringCacheLookupRs);
+        return StubResponse.withDelay(intCacheLookupStatusCode, delayCacheLookupUs, TimeUnit.MICROSECONDS, response);
     }
     
     // Геттеры и сеттеры для параметров Hello World
@@ -77,6 +113,7 @@ public class MockService extends MockControllerClientBase {
     
     public void setStringHelloWorldRs(String stringHelloWorldRs) {
         this.stringHelloWorldRs = stringHelloWorldRs;
+        onFieldsApplied();
     }
     
     // Геттеры и сеттеры для параметров Health Check
@@ -94,6 +131,7 @@ public class MockService extends MockControllerClientBase {
     
     public void setStringHealthCheckRs(String stringHealthCheckRs) {
         this.stringHealthCheckRs = stringHealthCheckRs;
+        onFieldsApplied();
     }
     
     // Геттеры и сеттеры для int параметров
@@ -119,6 +157,32 @@ public class MockService extends MockControllerClientBase {
     
     public void setIntResponseValue(int intResponseValue) {
         this.intResponseValue = intResponseValue;
+        onFieldsApplied();
+    }
+    
+    // Геттеры и сеттеры для параметров кеша
+    public long getDelayCacheLookupUs() {
+        return delayCacheLookupUs;
+    }
+    
+    public void setDelayCacheLookupUs(long delayCacheLookupUs) {
+        this.delayCacheLookupUs = delayCacheLookupUs;
+    }
+    
+    public String getStringCacheLookupRs() {
+        return stringCacheLookupRs;
+    }
+    
+    public void setStringCacheLookupRs(String stringCacheLookupRs) {
+        this.stringCacheLookupRs = stringCacheLookupRs;
+    }
+    
+    public int getIntCacheLookupStatusCode() {
+        return intCacheLookupStatusCode;
+    }
+    
+    public void setIntCacheLookupStatusCode(int intCacheLookupStatusCode) {
+        this.intCacheLookupStatusCode = intCacheLookupStatusCode;
     }
     
     // Геттеры и сеттеры для boolean параметров
@@ -128,6 +192,7 @@ public class MockService extends MockControllerClientBase {
     
     public void setHealthTrue(boolean healthTrue) {
         isHealthTrue = healthTrue;
+        onFieldsApplied();
     }
 }
 
@@ -0,0 +1,57 @@
+package com.mock.service;
+
+import com.mock.config.MockControllerClientBase;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import com.mock.config.sink.UploadSink;
+import org.springframework.stereotype.Service;
+
+@Service
+public class UploadService extends MockControllerClientBase {
+    
+    // Параметры приемника загрузок (mock-controller.upload-sink.enabled)
+    private long delayUpload = 0; // задержка ответа после чтения тела в миллисекундах
+    private int intUploadStatusCode = 200;
+    private int intUploadReadKbPerSecond = 0; // ограничение скорости чтения, 0 - без ограничения
+    private boolean isUploadChecksum = false; // считать CRC32C тела
+    
+    public StubResponse getUploadResponse(StubRequest request, UploadSink.Result result) {
+        return new StubResponse(intUploadStatusCode, delayUpload, result.toMap());
+    }
+    
+    public long getUploadReadBytesPerSecond() {
+        return intUploadReadKbPerSecond * 1024L;
+    }
+    
+    public boolean isUploadChecksum() {
+        return isUploadChecksum;
+    }
+    
+    public long getDelayUpload() {
+        return delayUpload;
+    }
+    
+    public void setDelayUpload(long delayUpload) {
+        this.delayUpload = delayUpload;
+    }
+    
+    public int getIntUploadStatusCode() {
+        return intUploadStatusCode;
+    }
+    
+    public void setIntUploadStatusCode(int intUploadStatusCode) {
+        this.intUploadStatusCode = intUploadStatusCode;
+    }
+    
+    public int getIntUploadReadKbPerSecond() {
+        return intUploadReadKbPerSecond;
+    }
+    
+    public void setIntUploadReadKbPerSecond(int intUploadReadKbPerSecond) {
+        this.intUploadReadKbPerSecond = intUploadReadKbPerSecond;
+    }
+    
+    public void setUploadChecksum(boolean uploadChecksum) {
+        isUploadChecksum = uploadChecksum;
+    }
+}
@@ -1,14 +1,24 @@
 package com.mock.service;
 
 import com.mock.config.MockControllerClientBase;
-import org.springframework.http.ResponseEntity;
+import com.mock.config.StubRequest;
+import com.mock.config.StubResponse;
+import com.mock.config.compression.StaticBodySource;
+import com.mock.config.dataset.DatasetRows;
+import com.mock.config.dataset.SyntheticDataset;
+import com.mock.config.keyed.KeyedResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
-public class UserService extends MockControllerClientBase {
+public class UserService extends MockControllerClientBase implements StaticBodySource {
     
     // Параметры для User Login эндпоинта
     private long delayUserLogin = 1200; // задержка в миллисекундах
@@ -16,12 +26,33 @@ public class UserService extends MockControllerClientBase {
     private int intUserLoginStatusCode = 200; // HTTP статус код для login
     private int intUserId = 12345; // Пример числового значения
     
+    // Параметры для User Logout эндпоинта
+    private long delayUserLogout = 300; // задержка в миллисекундах
+    private String stringUserLogoutResponse = "User logged out";
+    private int intUserLogoutStatusCode = 200; // HTTP статус код для logout
+    
     // Параметры для Data Fetch эндпоинта
     private long delayDataFetch = 600; // задержка в миллисекундах
     private String stringDataFetchResult = "Data retrieved";
     private int intDataFetchStatusCode = 200; // HTTP статус код
     private boolean isDataAvailable = true; // Boolean параметр для data
     
+    // Параметры профиля пользователя (ответ по id хранится в KeyedResponseCache)
+    private long delayUserProfile = 150; // задержка в миллисекундах
+    private String stringUserProfileStatus = "ACTIVE";
+    private int intUserProfileStatusCode = 200;
+    
+    // Параметры синтетических наборов данных (users, orders)
+    private long delayDataset = 200; // задержка в миллисекундах
+    private int intDatasetStatusCode = 200;
+    private int intDatasetUsers = 10000; // количество пользователей
+    private int intDatasetOrdersPerUser = 5; // заказов на пользователя
+    private int intDatasetPageSize = 1000; // размер страницы, если не задан limit
+    private int intDatasetSeed = 42; // seed генерации данных
+    
+    @Autowired
+    private KeyedResponseCache keyedResponseCache;
+    
     // Примеры переменных с большой буквы
     @SuppressWarnings("unused")
     private long DELAY_USER_ACTION = 1500; // задержка с большой буквы
@@ -32,30 +63,118 @@ public class UserService extends MockControllerClientBase {
     @SuppressWarnings("unused")
     private boolean IS_USER_ACTIVE = true; // boolean с большой буквы
     
-    public ResponseEntity<Map<String, String>> getUserLoginResponse() {
-        try {
-            Thread.sleep(delayUserLogin);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-        
-        Map<String, String> response = new HashMap<>();
+    // Тела по умолчанию пересобираются только при изменении полей
+    private volatile Map<String, Object> userLoginBody;
+    private volatile Map<String, Object> userLogoutBody;
+    private volatile Map<String, Object> dataFetchBody;
+    
+    public UserService() {
+        onFieldsApplied();
+    }
+    
+    @Override
+    protected void onFieldsApplied() {
+        userLoginBody = reuseBody(userLoginBody, buildUserLoginBody());
+        userLogoutBody = reuseBody(userLogoutBody, buildUserLogoutBody());
+        dataFetchBody = reuseBody(dataFetchBody, buildDataFetchBody());
+    }
+    
+    public StubResponse getUserLoginResponse(StubRequest request) {
+        return new StubResponse(intUserLoginStatusCode, delayUserLogin, userLoginBody);
+    }
+    
+    public StubResponse getUserLogoutResponse(StubRequest request) {
+        return new StubResponse(intUserLogoutStatusCode, delayUserLogout, userLogoutBody);
+    }
+    
+    public StubResponse getDataFetchResponse(StubRequest request) {
+        return new StubResponse(intDataFetchStatusCode, delayDataFetch, dataFetchBody);
+    }
+    
+    private Map<String, Object> buildUserLoginBody() {
+        Map<String, Object> response = new HashMap<>();
         response.put("result", stringUserLoginResponse);
         response.put("userId", String.valueOf(intUserId));
-        return ResponseEntity.status(intUserLoginStatusCode).body(response);
+        return response;
+    }
+    
+    private Map<String, Object> buildUserLogoutBody() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("result", stringUserLogoutResponse);
+        return response;
     }
     
-    public ResponseEntity<Map<String, String>> getDataFetchResponse() {
+    private Map<String, Object> buildDataFetchBody() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", stringDataFetchResult);
+        response.put("isAvailable", String.valueOf(isDataAvailable));
+        return response;
+    }
+    
+    /**
+     * Профили и наборы данных зависят от запроса, поэтому не включаются.
+     */
+    @Override
+    public Map<String, Map<String, Object>> getStaticBodies() {
+        Map<String, Map<String, Object>> bodies = new HashMap<>();
+        bodies.put("userLogin", userLoginBody);
+        bodies.put("userLogout", userLogoutBody);
+        bodies.put("dataFetch", dataFetchBody);
+        return bodies;
+    }
+    
+    /**
+     * Профиль пользователя по id. Профиль генерируется при первом обращении к id
+     * и возвращается без изменений до вытеснения из кеша или новой версии конфига.
+     */
+    public StubResponse getUserProfileResponse(StubRequest request) {
+        Map<String, Object> response = keyedResponseCache.get("userProfile", request.getPathVariable("id"), this::generateUserProfile);
+        return new StubResponse(intUserProfileStatusCode, delayUserProfile, response);
+    }
+    
+    private Map<String, Object> generateUserProfile(String userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("userId", userId);
+        profile.put("login", "user" + userId);
+        profile.put("status", stringUserProfileStatus);
+        profile.put("balance", random.nextInt(0, 10_000_000) / 100.0);
+        profile.put("loyaltyLevel", random.nextInt(1, 6));
+        profile.put("sessionToken", UUID.randomUUID().toString());
+        profile.put("generatedAt", Instant.now().toString());
+        return profile;
+    }
+    
+    /**
+     * Страница синтетического набора данных. Курсор - номер первой строки страницы (query-параметр cursor),
+     * размер страницы - query-параметр limit или intDatasetPageSize. Строки генерируются при записи ответа.
+     */
+    public StubResponse getDatasetResponse(SyntheticDataset dataset, StubRequest request) {
+        long total = dataset.size(intDatasetUsers, intDatasetOrdersPerUser);
+        long offset;
+        long limit;
         try {
-            Thread.sleep(delayDataFetch);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            String cursor = request.getQueryParam("cursor");
+            String limitParam = request.getQueryParam("limit");
+            offset = cursor != null && !cursor.isBlank() ? Long.parseLong(cursor.trim()) : 0;
+            limit = limitParam != null && !limitParam.isBlank() ? Long.parseLong(limitParam.trim()) : intDatasetPageSize;
+            if (offset < 0 || limit <= 0) {
+                throw new NumberFormatException("cursor must be non-negative and limit positive");
+            }
+        } catch (NumberFormatException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Invalid cursor or limit: " + e.getMessage());
+            return new StubResponse(400, delayDataset, error);
         }
+        long pageSize = Math.max(0, Math.min(limit, total - offset));
         
-        Map<String, String> response = new HashMap<>();
-        response.put("data", stringDataFetchResult);
-        response.put("isAvailable", String.valueOf(isDataAvailable));
-        return ResponseEntity.status(intDataFetchStatusCode).body(response);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("dataset", dataset.name().toLowerCase());
+        response.put("total", total);
+        response.put("cursor", String.valueOf(offset));
+        response.put("items", new DatasetRows(dataset, intDatasetSeed, intDatasetOrdersPerUser, offset, pageSize));
+        response.put("nextCursor", offset + pageSize < total ? String.valueOf(offset + pageSize) : null);
+        return new StubResponse(intDatasetStatusCode, delayDataset, response);
     }
     
     // Геттеры и сеттеры для параметров User Login
@@ -73,6 +192,33 @@ public class UserService extends MockControllerClientBase {
     
     public void setStringUserLoginResponse(String stringUserLoginResponse) {
         this.stringUserLoginResponse = stringUserLoginResponse;
+        onFieldsApplied();
+    }
+    
+    // Геттеры и сеттеры для параметров User Logout
+    public long getDelayUserLogout() {
+        return delayUserLogout;
+    }
+    
+    public void setDelayUserLogout(long delayUserLogout) {
+        this.delayUserLogout = delayUserLogout;
+    }
+    
+    public String getStringUserLogoutResponse() {
+        return stringUserLogoutResponse;
+    }
+    
+    public void setStringUserLogoutResponse(String stringUserLogoutResponse) {
+        this.stringUserLogoutResponse = stringUserLogoutResponse;
+        onFieldsApplied();
+    }
+    
+    public int getIntUserLogoutStatusCode() {
+        return intUserLogoutStatusCode;
+    }
+    
+    public void setIntUserLogoutStatusCode(int intUserLogoutStatusCode) {
+        this.intUserLogoutStatusCode = intUserLogoutStatusCode;
     }
     
     // Геттеры и сеттеры для параметров Data Fetch
@@ -90,6 +236,7 @@ public class UserService extends MockControllerClientBase {
     
     public void setStringDataFetchResult(String stringDataFetchResult) {
         this.stringDataFetchResult = stringDataFetchResult;
+        onFieldsApplied();
     }
     
     // Геттеры и сеттеры для int параметров
@@ -115,6 +262,81 @@ public class UserService extends MockControllerClientBase {
     
     public void setIntUserId(int intUserId) {
         this.intUserId = intUserId;
+        onFieldsApplied();
+    }
+    
+    // Геттеры и сеттеры для параметров Dataset
+    public long getDelayDataset() {
+        return delayDataset;
+    }
+    
+    public void setDelayDataset(long delayDataset) {
+        this.delayDataset = delayDataset;
+    }
+    
+    public int getIntDatasetStatusCode() {
+        return intDatasetStatusCode;
+    }
+    
+    public void setIntDatasetStatusCode(int intDatasetStatusCode) {
+        this.intDatasetStatusCode = intDatasetStatusCode;
+    }
+    
+    public int getIntDatasetUsers() {
+        return intDatasetUsers;
+    }
+    
+    public void setIntDatasetUsers(int intDatasetUsers) {
+        this.intDatasetUsers = intDatasetUsers;
+    }
+    
+    public int getIntDatasetOrdersPerUser() {
+        return intDatasetOrdersPerUser;
+    }
+    
+    public void setIntDatasetOrdersPerUser(int intDatasetOrdersPerUser) {
+        this.intDatasetOrdersPerUser = intDatasetOrdersPerUser;
+    }
+    
+    public int getIntDatasetPageSize() {
+        return intDatasetPageSize;
+    }
+    
+    public void setIntDatasetPageSize(int intDatasetPageSize) {
+        this.intDatasetPageSize = intDatasetPageSize;
+    }
+    
+    public int getIntDatasetSeed() {
+        return intDatasetSeed;
+    }
+    
+    public void setIntDatasetSeed(int intDatasetSeed) {
+        this.intDatasetSeed = intDatasetSeed;
+    }
+    
+    // Геттеры и сеттеры для параметров User Profile
+    public long getDelayUserProfile() {
+        return delayUserProfile;
+    }
+    
+    public void setDelayUserProfile(long delayUserProfile) {
+        this.delayUserProfile = delayUserProfile;
+    }
+    
+    public String getStringUserProfileStatus() {
+        return stringUserProfileStatus;
+    }
+    
+    public void setStringUserProfileStatus(String stringUserProfileStatus) {
+        this.stringUserProfileStatus = stringUserProfileStatus;
+    }
+    
+    public int getIntUserProfileStatusCode() {
+        return intUserProfileStatusCode;
+    }
+    
+    public void setIntUserProfileStatusCode(int intUserProfileStatusCode) {
+        this.intUserProfileStatusCode = intUserProfileStatusCode;
     }
     
     // Геттеры и сеттеры для boolean параметров
@@ -124,6 +346,7 @@ public class UserService extends MockControllerClientBase {
     
     public void setDataAvailable(boolean dataAvailable) {
         isDataAvailable = dataAvailable;
+        onFieldsApplied();
     }
 }
 
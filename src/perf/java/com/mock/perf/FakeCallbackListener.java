@@ -0,0 +1,85 @@
+package com.mock.perf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальный получатель обратных вызовов заглушки для нагрузочных прогонов.
+ * Принимает запросы на /callbacks на JDK HttpServer и считает запросы (пачки)
+ * и обратные вызовы в них: тело-массив - пачка из нескольких вызовов, объект - один вызов.
+ */
+public class FakeCallbackListener {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final AtomicLong callbackCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong invalidCount = new AtomicLong();
+    
+    public FakeCallbackListener() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/callbacks", this::handleCallback);
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    public void stop() {
+        server.stop(0);
+    }
+    
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/callbacks";
+    }
+    
+    /**
+     * Количество полученных обратных вызовов (с учетом вызовов внутри пачек).
+     */
+    public long getCallbackCount() {
+        return callbackCount.get();
+    }
+    
+    /**
+     * Количество полученных запросов: каждый запрос - пачка из одного или нескольких вызовов.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+    
+    /**
+     * Количество запросов, тело которых не JSON-объект или массив.
+     */
+    public long getInvalidCount() {
+        return invalidCount.get();
+    }
+    
+    private void handleCallback(HttpExchange exchange) throws IOException {
+        JsonNode body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = objectMapper.readTree(in);
+        } catch (IOException e) {
+            body = null;
+        }
+        if (body != null && body.isArray()) {
+            callbackCount.addAndGet(body.size());
+            batchCount.incrementAndGet();
+        } else if (body != null && body.isObject()) {
+            callbackCount.incrementAndGet();
+            batchCount.incrementAndGet();
+        } else {
+            invalidCount.incrementAndGet();
+        }
+        exchange.sendResponseHeaders(204, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,285 @@
+package com.mock.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.mock.config.ConfigPatch;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Встроенная замена MockController для нагрузочных прогонов.
+ * Обслуживает /api/healthcheck, /api/configs/checkUpdate и /api/configs/{systemName}
+ * на JDK HttpServer и позволяет публиковать новые версии конфига из кода теста.
+ *
+ * Базовый конфиг берется из первого checkUpdate заглушки, публикуемые изменения
+ * накладываются на него по секциям (delays, intParams, stringParams, ...).
+ *
+ * Загрузка конфига поддерживает ETag/If-None-Match (304), gzip и ответ patch
+ * относительно baseVersion, если эта версия публиковалась. Тела запросов читаются
+ * по Content-Type, ответы отдаются в первом поддерживаемом формате из Accept (JSON, Smile, CBOR).
+ */
+public class FakeMockController {
+    
+    private static final String JSON = "application/json";
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final String CBOR = "application/cbor";
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final HttpServer server;
+    private final AtomicInteger versionCounter = new AtomicInteger(1);
+    private final AtomicLong checkUpdateCount = new AtomicLong();
+    private final AtomicLong configDownloadCount = new AtomicLong();
+    private final AtomicLong healthcheckCount = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+    private final AtomicLong patchDownloadCount = new AtomicLong();
+    private final AtomicLong configBytesSent = new AtomicLong();
+    private final AtomicLong binaryMessageCount = new AtomicLong();
+    private final Map<String, Map<String, Object>> history = new ConcurrentHashMap<>();
+    
+    private volatile String currentVersion = "v1";
+    private volatile Map<String, Object> currentConfig;
+    private volatile String lastClientVersion;
+    
+    public FakeMockController() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/api/healthcheck", this::handleHealthcheck);
+        server.createContext("/api/configs/checkUpdate", this::handleCheckUpdate);
+        server.createContext("/api/configs/", this::handleGetConfig);
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    public void stop() {
+        server.stop(0);
+    }
+    
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+    
+    public String getCurrentVersion() {
+        return currentVersion;
+    }
+    
+    /**
+     * Последняя версия, которую заглушка прислала в checkUpdate.
+     */
+    public String getLastClientVersion() {
+        return lastClientVersion;
+    }
+    
+    public long getCheckUpdateCount() {
+        return checkUpdateCount.get();
+    }
+    
+    public long getConfigDownloadCount() {
+        return configDownloadCount.get();
+    }
+    
+    public long getHealthcheckCount() {
+        return healthcheckCount.get();
+    }
+    
+    public long getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+    
+    public long getPatchDownloadCount() {
+        return patchDownloadCount.get();
+    }
+    
+    /**
+     * Количество байт тел ответов GET /api/configs/{systemName} (после сжатия).
+     */
+    public long getConfigBytesSent() {
+        return configBytesSent.get();
+    }
+    
+    /**
+     * Количество запросов и ответов в Smile или CBOR.
+     */
+    public long getBinaryMessageCount() {
+        return binaryMessageCount.get();
+    }
+    
+    public boolean hasBaseConfig() {
+        return currentConfig != null;
+    }
+    
+    /**
+     * Публикует новую версию конфига: значения секций накладываются на текущий конфиг.
+     * @return номер опубликованной версии
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized String publish(Map<String, Map<String, Object>> changes) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        if (currentConfig != null) {
+            for (Map.Entry<String, Object> entry : currentConfig.entrySet()) {
+                config.put(entry.getKey(), entry.getValue() instanceof Map<?, ?> section
+                    ? new LinkedHashMap<>((Map<String, Object>) section)
+                    : entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Map<String, Object>> change : changes.entrySet()) {
+            Object section = config.computeIfAbsent(change.getKey(), k -> new LinkedHashMap<String, Object>());
+            ((Map<String, Object>) section).putAll(change.getValue());
+        }
+        currentConfig = config;
+        currentVersion = "v" + versionCounter.incrementAndGet();
+        history.put(currentVersion, config);
+        return currentVersion;
+    }
+    
+    private void handleHealthcheck(HttpExchange exchange) throws IOException {
+        healthcheckCount.incrementAndGet();
+        drain(exchange);
+        respond(exchange, 200, Map.of("status", "OK"));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void handleCheckUpdate(HttpExchange exchange) throws IOException {
+        checkUpdateCount.incrementAndGet();
+        Map<String, Object> request;
+        try (InputStream body = exchange.getRequestBody()) {
+            request = mapperFor(exchange.getRequestHeaders().getFirst("Content-Type")).readValue(body, Map.class);
+        }
+        String clientVersion = String.valueOf(request.get("version"));
+        lastClientVersion = clientVersion;
+        synchronized (this) {
+            if (currentConfig == null && request.get("config") instanceof Map<?, ?> config) {
+                currentConfig = (Map<String, Object>) config;
+                history.put(currentVersion, currentConfig);
+            }
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("needUpdate", !currentVersion.equals(clientVersion));
+        response.put("currentVersion", currentVersion);
+        respond(exchange, 200, response);
+    }
+    
+    private void handleGetConfig(HttpExchange exchange) throws IOException {
+        configDownloadCount.incrementAndGet();
+        drain(exchange);
+        String path = exchange.getRequestURI().getPath();
+        String systemName = path.substring("/api/configs/".length());
+        String version = currentVersion;
+        Map<String, Object> config = currentConfig != null ? currentConfig : Map.of();
+        String etag = "\"" + Integer.toHexString(config.hashCode()) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedCount.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("systemName", systemName);
+        response.put("version", version);
+        String baseVersion = queryParam(exchange, "baseVersion");
+        Map<String, Object> baseConfig = baseVersion != null ? history.get(baseVersion) : null;
+        if (baseConfig != null) {
+            patchDownloadCount.incrementAndGet();
+            response.put("baseVersion", baseVersion);
+            response.put("patch", ConfigPatch.diff(baseConfig, config));
+        } else {
+            response.put("config", config);
+        }
+        response.put("updatedAt", java.time.Instant.now().toString());
+        
+        String contentType = responseType(exchange);
+        byte[] bytes = mapperFor(contentType).writeValueAsBytes(response);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(bytes);
+            }
+            bytes = buffer.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        configBytesSent.addAndGet(bytes.length);
+        respondBytes(exchange, 200, contentType, bytes);
+    }
+    
+    private String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String param : query.split("&")) {
+            if (param.startsWith(name + "=")) {
+                return param.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+    
+    private void drain(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+        }
+    }
+    
+    /**
+     * Первый поддерживаемый формат из Accept; JSON, если Accept не указан.
+     */
+    private String responseType(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null) {
+            for (String type : accept.split(",")) {
+                String mediaType = type.split(";")[0].trim();
+                if (mediaType.equals(SMILE) || mediaType.equals(CBOR) || mediaType.equals(JSON)) {
+                    return mediaType;
+                }
+            }
+        }
+        return JSON;
+    }
+    
+    private ObjectMapper mapperFor(String contentType) {
+        if (contentType != null && contentType.startsWith(SMILE)) {
+            binaryMessageCount.incrementAndGet();
+            return smileMapper;
+        }
+        if (contentType != null && contentType.startsWith(CBOR)) {
+            binaryMessageCount.incrementAndGet();
+            return cborMapper;
+        }
+        return objectMapper;
+    }
+    
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        String contentType = responseType(exchange);
+        respondBytes(exchange, status, contentType, mapperFor(contentType).writeValueAsBytes(body));
+    }
+    
+    private void respondBytes(HttpExchange exchange, int status, String contentType, byte[] bytes) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.mock.perf;
+
+import com.mock.TestMockApplication;
+import com.mock.config.callback.CallbackDispatcher;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сквозной нагрузочный прогон заглушки против встроенного FakeMockController.
+ *
+ * Сценарий:
+ * 1. Поднимаются FakeMockController, FakeCallbackListener и приложение с интервалом checkUpdate в 1 секунду.
+ * 2. Публикуется начальная задержка /hello и обратный вызов /hello в FakeCallbackListener пачками
+ *    по perf.callbackBatchSize, прогон ждет применения конфига.
+ * 3. Конкурентные клиенты нагружают /hello; в середине прогона публикуется новая задержка
+ *    и маркер в stringHelloWorldRs, по которому определяется первый ответ новой версии.
+ * 4. Выводится пропускная способность, точность задержки (настроенная против наблюдаемой p50/p99)
+ *    для обеих фаз и время распространения версии до первого затронутого ответа.
+ * 5. После нагрузки прогон ждет отправки обратных вызовов и выводит количество доставленных
+ *    и ожидающих вызовов и пачек, полученных FakeCallbackListener.
+ *
+ * Параметры (системные свойства): perf.concurrency, perf.durationSeconds,
+ * perf.initialDelayMs, perf.changedDelayMs, perf.wireFormat (json, smile или cbor), perf.callbackBatchSize.
+ * Запуск: mvn -Pperf verify
+ */
+public class LoadTestRunner {
+    
+    private static final String MARKER = "perf-changed";
+    
+    private final int concurrency = Integer.getInteger("perf.concurrency", 64);
+    private final int durationSeconds = Integer.getInteger("perf.durationSeconds", 20);
+    private final long initialDelayMs = Long.getLong("perf.initialDelayMs", 20);
+    private final long changedDelayMs = Long.getLong("perf.changedDelayMs", 80);
+    private final String wireFormat = System.getProperty("perf.wireFormat", "json");
+    private final int callbackBatchSize = Integer.getInteger("perf.callbackBatchSize", 20);
+    
+    private final AtomicLong errors = new AtomicLong();
+    // Выборки задержек ограничены по размеру, поэтому запросы считаются отдельно
+    private final LongAdder requests = new LongAdder();
+    private final AtomicLong firstChangedResponseNanos = new AtomicLong(Long.MAX_VALUE);
+    
+    public static void main(String[] args) throws Exception {
+        int exitCode = new LoadTestRunner().run();
+        System.exit(exitCode);
+    }
+    
+    private int run() throws Exception {
+        FakeMockController controller = new FakeMockController();
+        controller.start();
+        FakeCallbackListener listener = new FakeCallbackListener();
+        listener.start();
+        
+        ConfigurableApplicationContext context = SpringApplication.run(TestMockApplication.class,
+            "--server.port=0",
+            "--mock-controller.url=" + controller.getUrl(),
+            "--mock-controller.check-interval-seconds=1",
+            "--mock-controller.wire-format=" + wireFormat,
+            "--logging.logback.level=WARN",
+            "--logging.level.com.mock=WARN",
+            "--logging.level.org.springframework=WARN");
+        try {
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            
+            waitFor(controller::hasBaseConfig, "initial checkUpdate");
+            String initialVersion = controller.publish(Map.of(
+                "delays", Map.of("delayHelloWorld", String.valueOf(initialDelayMs)),
+                "stringParams", Map.of("stringHelloWorldRs", "perf-initial"),
+                "callbacks", Map.of("hello", Map.of(
+                    "url", listener.getUrl(),
+                    "batchSize", callbackBatchSize,
+                    "batchWindowMs", 50))));
+            waitFor(() -> initialVersion.equals(controller.getLastClientVersion()), "initial config version");
+            
+            HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(Math.max(4, concurrency / 8)))
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/hello"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+            
+            // Прогрев, чтобы первые запросы не искажали распределение
+            for (int i = 0; i < 200; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+            
+            List<long[]> initialLatencies = new ArrayList<>();
+            List<long[]> changedLatencies = new ArrayList<>();
+            long[] counts = new long[concurrency * 2];
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+            ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+            CountDownLatch done = new CountDownLatch(concurrency);
+            long startNanos = System.nanoTime();
+            
+            for (int w = 0; w < concurrency; w++) {
+                long[] initial = new long[1 << 16];
+                long[] changed = new long[1 << 16];
+                initialLatencies.add(initial);
+                changedLatencies.add(changed);
+                int worker = w;
+                workers.execute(() -> {
+                    try {
+                        int initialCount = 0;
+                        int changedCount = 0;
+                        while (System.nanoTime() < deadline) {
+                            long sent = System.nanoTime();
+                            try {
+                                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                                long received = System.nanoTime();
+                                requests.increment();
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                } else if (response.body().contains(MARKER)) {
+                                    firstChangedResponseNanos.accumulateAndGet(received, Math::min);
+                                    if (changedCount < changed.length) {
+                                        changed[changedCount++] = received - sent;
+                                    }
+                                } else if (initialCount < initial.length) {
+                                    initial[initialCount++] = received - sent;
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        counts[worker * 2] = initialCount;
+                        counts[worker * 2 + 1] = changedCount;
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            
+            // Смена конфига в середине прогона
+            Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds) / 2);
+            long publishNanos = System.nanoTime();
+            String changedVersion = controller.publish(Map.of(
+                "delays", Map.of("delayHelloWorld", String.valueOf(changedDelayMs)),
+                "stringParams", Map.of("stringHelloWorldRs", MARKER)));
+            
+            done.await();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            workers.shutdown();
+            
+            long[] initialAll = merge(initialLatencies, counts, 0);
+            long[] changedAll = merge(changedLatencies, counts, 1);
+            long total = requests.sum();
+            
+            CallbackDispatcher callbacks = context.getBean(CallbackDispatcher.class);
+            long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (callbackPending(callbacks) > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(20);
+            }
+            Map<String, Object> callbackStatus = callbacks.getStatus();
+            long callbacksPending = callbackPending(callbacks);
+            long callbacksDelivered = ((Number) callbackStatus.get("deliveredCount")).longValue();
+            
+            System.out.println();
+            System.out.println("=== Load test report ===");
+            System.out.printf("concurrency=%d, duration=%ds, endpoint=/hello%n", concurrency, durationSeconds);
+            System.out.printf("requests=%d, errors=%d, throughput=%.1f req/s%n",
+                total, errors.get(), total / (elapsedNanos / 1e9));
+            printPhase("initial (" + initialVersion + ")", initialDelayMs, initialAll);
+            printPhase("changed (" + changedVersion + ")", changedDelayMs, changedAll);
+            long firstChanged = firstChangedResponseNanos.get();
+            if (firstChanged != Long.MAX_VALUE) {
+                System.out.printf("propagation: version bump -> first affected response = %.1f ms%n",
+                    (firstChanged - publishNanos) / 1e6);
+            } else {
+                System.out.println("propagation: changed config was not observed during the run");
+            }
+            System.out.printf("controller traffic: checkUpdate=%d, config downloads=%d (patch=%d, not modified=%d, %d bytes), healthchecks=%d%n",
+                controller.getCheckUpdateCount(), controller.getConfigDownloadCount(), controller.getPatchDownloadCount(),
+                controller.getNotModifiedCount(), controller.getConfigBytesSent(), controller.getHealthcheckCount());
+            System.out.printf("wire format: %s, binary messages=%d%n", wireFormat, controller.getBinaryMessageCount());
+            System.out.printf("callbacks: scheduled=%s, delivered=%d, pending=%d, failed=%s, dropped=%s; "
+                    + "listener received=%d in %d batches (batchSize=%d)%n",
+                callbackStatus.get("scheduledCount"), callbacksDelivered, callbacksPending,
+                callbackStatus.get("failedCount"), callbackStatus.get("droppedCount"),
+                listener.getCallbackCount(), listener.getBatchCount(), callbackBatchSize);
+            boolean callbacksOk = callbacksPending == 0 && callbacksDelivered == listener.getCallbackCount()
+                && listener.getInvalidCount() == 0;
+            return firstChanged != Long.MAX_VALUE && errors.get() == 0 && callbacksOk ? 0 : 1;
+        } finally {
+            context.close();
+            listener.stop();
+            controller.stop();
+        }
+    }
+    
+    private long callbackPending(CallbackDispatcher callbacks) {
+        return ((Number) callbacks.getStatus().get("pending")).longValue();
+    }
+    
+    private long[] merge(List<long[]> latencies, long[] counts, int phase) {
+        int size = 0;
+        for (int w = 0; w < latencies.size(); w++) {
+            size += (int) counts[w * 2 + phase];
+        }
+        long[] result = new long[size];
+        int offset = 0;
+        for (int w = 0; w < latencies.size(); w++) {
+            int count = (int) counts[w * 2 + phase];
+            System.arraycopy(latencies.get(w), 0, result, offset, count);
+            offset += count;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+    
+    private void printPhase(String name, long configuredMs, long[] sorted) {
+        if (sorted.length == 0) {
+            System.out.printf("%s: no responses%n", name);
+            return;
+        }
+        double p50 = percentile(sorted, 0.50) / 1e6;
+        double p99 = percentile(sorted, 0.99) / 1e6;
+        System.out.printf("%s: samples=%d, configured=%d ms, observed p50=%.2f ms (+%.2f), p99=%.2f ms (+%.2f), max=%.2f ms%n",
+            name, sorted.length, configuredMs, p50, p50 - configuredMs, p99, p99 - configuredMs,
+            sorted[sorted.length - 1] / 1e6);
+    }
+    
+    private long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+    
+    private void waitFor(java.util.function.BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for " + what);
+            }
+            Thread.sleep(20);
+        }
+    }
+}